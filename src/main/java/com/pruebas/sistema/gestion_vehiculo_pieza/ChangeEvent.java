@@ -0,0 +1,80 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+/**
+ * Evento de cambio sobre una pieza o un vehículo.
+ * Las instancias están preasignadas en el buffer circular de {@link ChangeEventFeed}
+ * y se reutilizan: un consumidor no debe guardar la referencia fuera de onEvent,
+ * sino copiar los valores que necesite.
+ */
+public final class ChangeEvent {
+
+    public enum EntityType { PART, VEHICLE }
+
+    private EntityType entityType;
+    private String key;
+    private PartChangeListener.Field partField;
+    private VehicleChangeListener.Field vehicleField;
+    private double oldValue;
+    private double newValue;
+    private long timestampMillis;
+
+    ChangeEvent() {
+    }
+
+    void setPart(String partNumber, PartChangeListener.Field field, double oldValue, double newValue, long timestampMillis) {
+        this.entityType = EntityType.PART;
+        this.key = partNumber;
+        this.partField = field;
+        this.vehicleField = null;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.timestampMillis = timestampMillis;
+    }
+
+    void setVehicle(String vin, VehicleChangeListener.Field field, double oldValue, double newValue, long timestampMillis) {
+        this.entityType = EntityType.VEHICLE;
+        this.key = vin;
+        this.partField = null;
+        this.vehicleField = field;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.timestampMillis = timestampMillis;
+    }
+
+    // Getters
+    public EntityType getEntityType() { return entityType; }
+    // partNumber o VIN según el tipo de entidad
+    public String getKey() { return key; }
+    public PartChangeListener.Field getPartField() { return partField; }
+    public VehicleChangeListener.Field getVehicleField() { return vehicleField; }
+    public double getOldValue() { return oldValue; }
+    public double getNewValue() { return newValue; }
+    public long getTimestampMillis() { return timestampMillis; }
+
+    /**
+     * Metodo para saber si el evento es una variación de stock de una pieza.
+     */
+    public boolean isStockChange() {
+        return partField == PartChangeListener.Field.STOCK;
+    }
+
+    /**
+     * Metodo para saber si el evento es un cambio de estado de un vehículo.
+     */
+    public boolean isStatusTransition() {
+        return vehicleField == VehicleChangeListener.Field.STATUS;
+    }
+
+    /**
+     * Metodo para saber si el evento es un cambio de precio (de pieza o de vehículo).
+     */
+    public boolean isPriceChange() {
+        return partField == PartChangeListener.Field.UNIT_PRICE
+            || vehicleField == VehicleChangeListener.Field.SALE_PRICE
+            || vehicleField == VehicleChangeListener.Field.PURCHASE_PRICE;
+    }
+
+    // Estados de una transición (sólo válidos si isStatusTransition)
+    public Vehicle.VehicleStatus getOldStatus() { return Vehicle.VehicleStatus.values()[(int) oldValue]; }
+    public Vehicle.VehicleStatus getNewStatus() { return Vehicle.VehicleStatus.values()[(int) newValue]; }
+}
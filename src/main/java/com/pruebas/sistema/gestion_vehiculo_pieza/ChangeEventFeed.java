@@ -0,0 +1,288 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Feed de cambios de piezas y vehículos para sistemas externos (tienda web, reposición, analítica).
+ * Funciona como un Disruptor simplificado:
+ * - Buffer circular de eventos preasignados: publicar no crea objetos.
+ * - Varios productores reclaman secuencias con CAS sobre un cursor común.
+ * - Cada consumidor tiene su hilo y su secuencia, ve todos los eventos y los procesa por lotes.
+ * - Si el buffer está lleno, la política decide: BLOCK espera al consumidor más lento, DROP descarta el evento.
+ * Uso: subscribe(...) para cada consumidor, start(), y después track(...) de las entidades a observar.
+ * El orden se comprueba: track(...) antes de start() lanza IllegalStateException y los eventos que
+ * lleguen con el feed parado se descartan, así ningún evento se publica sin sus consumidores.
+ */
+public class ChangeEventFeed implements PartChangeListener, VehicleChangeListener, AutoCloseable {
+
+    public enum OverflowPolicy { BLOCK, DROP }
+
+    private static final long IDLE_PARK_NANOS = 50_000;
+    private static final long FULL_PARK_NANOS = 1_000;
+
+    private final ChangeEvent[] ring;
+    private final int mask;
+    // Secuencia publicada en cada ranura: un consumidor sólo lee la ranura cuando coincide
+    private final AtomicLongArray published;
+    // Última secuencia reclamada por algún productor
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final OverflowPolicy policy;
+    private final int maxBatchSize;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder handlerErrors = new LongAdder();
+    // Copia del mínimo de las secuencias de los consumidores, para no recorrerlos en cada publicación
+    private volatile long gatingCache = -1;
+    // Productores entre claim() y la publicación: al cerrar, los consumidores los esperan
+    private final AtomicInteger publishing = new AtomicInteger();
+    private volatile boolean running;
+    private volatile boolean closed;
+
+    /**
+     * @param capacity Tamaño del buffer; debe ser potencia de dos
+     * @param policy Qué hacer cuando el consumidor más lento va una vuelta por detrás
+     * @param maxBatchSize Máximo de eventos que un consumidor procesa antes de publicar su avance
+     */
+    public ChangeEventFeed(int capacity, OverflowPolicy policy, int maxBatchSize) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("La capacidad debe ser una potencia de dos: " + capacity);
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero.");
+        }
+        this.ring = new ChangeEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new ChangeEvent();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.policy = policy;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Metodo para registrar un consumidor. Debe llamarse antes de start().
+     */
+    public synchronized void subscribe(String name, ChangeEventHandler handler) {
+        if (running || closed) {
+            throw new IllegalStateException("No se pueden añadir consumidores con el feed en marcha.");
+        }
+        subscribers.add(new Subscriber(name, handler));
+    }
+
+    /**
+     * Metodo para arrancar un hilo por consumidor.
+     */
+    public synchronized void start() {
+        if (running || closed) {
+            throw new IllegalStateException("El feed ya fue arrancado.");
+        }
+        running = true;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.thread = new Thread(subscriber, "change-feed-" + subscriber.name);
+            subscriber.thread.setDaemon(true);
+            subscriber.thread.start();
+        }
+    }
+
+    /**
+     * Metodo para publicar en el feed los cambios de una pieza.
+     */
+    public void track(Part part) {
+        requireRunning();
+        part.addChangeListener(this);
+    }
+
+    /**
+     * Metodo para publicar en el feed los cambios de un vehículo.
+     */
+    public void track(Vehicle vehicle) {
+        requireRunning();
+        vehicle.addChangeListener(this);
+    }
+
+    private void requireRunning() {
+        if (!running) {
+            throw new IllegalStateException("El feed debe estar arrancado (start()) para observar entidades.");
+        }
+    }
+
+    @Override
+    public void onPartChanged(Part part, PartChangeListener.Field field, double oldValue, double newValue) {
+        long sequence = claim();
+        if (sequence < 0) {
+            return;
+        }
+        try {
+            ring[(int) (sequence & mask)].setPart(part.getPartNumber(), field, oldValue, newValue, System.currentTimeMillis());
+            published.set((int) (sequence & mask), sequence);
+        } finally {
+            publishing.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void onVehicleChanged(Vehicle vehicle, VehicleChangeListener.Field field, double oldValue, double newValue) {
+        long sequence = claim();
+        if (sequence < 0) {
+            return;
+        }
+        try {
+            ring[(int) (sequence & mask)].setVehicle(vehicle.getVin(), field, oldValue, newValue, System.currentTimeMillis());
+            published.set((int) (sequence & mask), sequence);
+        } finally {
+            publishing.decrementAndGet();
+        }
+    }
+
+    // Reclama la siguiente secuencia, o devuelve -1 si el evento se descarta.
+    // Si devuelve una secuencia, quien llama debe publicarla y descontarse de 'publishing'
+    private long claim() {
+        publishing.incrementAndGet();
+        if (!running) {
+            return discard();
+        }
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - ring.length;
+            if (wrapPoint > gatingCache) {
+                long gating = minSubscriberSequence(current);
+                gatingCache = gating;
+                if (wrapPoint > gating) {
+                    if (policy == OverflowPolicy.DROP || closed) {
+                        return discard();
+                    }
+                    LockSupport.parkNanos(FULL_PARK_NANOS);
+                    continue;
+                }
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long discard() {
+        publishing.decrementAndGet();
+        dropped.increment();
+        return -1;
+    }
+
+    // Sin consumidores no hay nada que proteger: el buffer puede sobrescribirse
+    private long minSubscriberSequence(long fallback) {
+        long min = Long.MAX_VALUE;
+        for (Subscriber subscriber : subscribers) {
+            min = Math.min(min, subscriber.sequence.get());
+        }
+        return (min == Long.MAX_VALUE) ? fallback : min;
+    }
+
+    // Última secuencia contigua publicada a partir de 'from' (from - 1 si no hay nada nuevo)
+    private long highestPublished(long from) {
+        long claimed = cursor.get();
+        long sequence = from;
+        while (sequence <= claimed && published.get((int) (sequence & mask)) == sequence) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    // --- Métricas ---
+
+    public long getPublishedCount() { return cursor.get() + 1; }
+    public long getDroppedCount() { return dropped.sum(); }
+    public long getHandlerErrorCount() { return handlerErrors.sum(); }
+    public int getCapacity() { return ring.length; }
+
+    /**
+     * Metodo para saber cuántos eventos lleva de retraso el consumidor más lento.
+     */
+    public long getMaxLag() {
+        long head = cursor.get();
+        long lag = 0;
+        for (Subscriber subscriber : subscribers) {
+            lag = Math.max(lag, head - subscriber.sequence.get());
+        }
+        return lag;
+    }
+
+    /**
+     * Detiene la publicación, deja que los consumidores vacíen lo pendiente y espera a sus hilos.
+     */
+    @Override
+    public void close() {
+        List<Thread> threads = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            running = false;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.thread != null) {
+                    threads.add(subscriber.thread);
+                }
+            }
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final String name;
+        private final ChangeEventHandler handler;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private Thread thread;
+
+        private Subscriber(String name, ChangeEventHandler handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            while (true) {
+                long available = highestPublished(next);
+                if (available < next) {
+                    // Cerrado: se sale sólo cuando ningún productor está a medias y todo lo reclamado
+                    // se ha procesado; una secuencia reclamada pero aún sin publicar se espera
+                    if (!running && publishing.get() == 0 && next > cursor.get()) {
+                        return;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                long end = Math.min(available, next + maxBatchSize - 1);
+                for (long current = next; current <= end; current++) {
+                    try {
+                        handler.onEvent(ring[(int) (current & mask)], current, current == end);
+                    } catch (RuntimeException e) {
+                        // Un consumidor defectuoso no debe frenar el feed
+                        handlerErrors.increment();
+                    }
+                }
+                sequence.set(end);
+                next = end + 1;
+            }
+        }
+    }
+}
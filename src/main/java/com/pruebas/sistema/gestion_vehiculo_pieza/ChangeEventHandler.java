@@ -0,0 +1,16 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+/**
+ * Consumidor del {@link ChangeEventFeed}. Cada consumidor corre en su propio hilo
+ * y recibe todos los eventos en orden de publicación.
+ */
+@FunctionalInterface
+public interface ChangeEventHandler {
+
+    /**
+     * @param event Evento reutilizable; no debe guardarse la referencia
+     * @param sequence Número de secuencia del evento en el feed
+     * @param endOfBatch true en el último evento del lote disponible (momento para hacer flush)
+     */
+    void onEvent(ChangeEvent event, long sequence, boolean endOfBatch);
+}
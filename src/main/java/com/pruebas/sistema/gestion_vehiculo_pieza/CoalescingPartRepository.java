@@ -0,0 +1,56 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decorador de PartRepository que agrupa las búsquedas concurrentes del mismo partNumber
+ * en una sola llamada al repositorio real. Las escrituras pasan directamente
+ * y olvidan la búsqueda en curso de su clave, para que una lectura posterior vea lo escrito.
+ */
+public class CoalescingPartRepository implements PartRepository {
+
+    private final PartRepository delegate;
+    private final SingleFlight<String, Part> lookups;
+
+    public CoalescingPartRepository(PartRepository delegate, long maxWaitMillis) {
+        this.delegate = delegate;
+        this.lookups = new SingleFlight<>(maxWaitMillis);
+    }
+
+    @Override
+    public Part findByPartNumber(String partNumber) {
+        return lookups.execute(partNumber, () -> delegate.findByPartNumber(partNumber));
+    }
+
+    @Override
+    public Part save(Part part) {
+        Part saved = delegate.save(part);
+        lookups.forget(saved.getPartNumber());
+        return saved;
+    }
+
+    @Override
+    public List<Part> saveAll(Collection<Part> parts) {
+        List<Part> saved = delegate.saveAll(parts);
+        for (Part part : saved) {
+            lookups.forget(part.getPartNumber());
+        }
+        return saved;
+    }
+
+    @Override
+    public Collection<Part> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void deleteByPartNumber(String partNumber) {
+        delegate.deleteByPartNumber(partNumber);
+        lookups.forget(partNumber);
+    }
+
+    public SingleFlight.Stats getStats() {
+        return lookups.getStats();
+    }
+}
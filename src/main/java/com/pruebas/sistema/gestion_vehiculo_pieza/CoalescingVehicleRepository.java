@@ -0,0 +1,56 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Decorador de VehicleRepository que agrupa las búsquedas concurrentes del mismo VIN
+ * (p. ej. durante una subasta) en una sola llamada al repositorio real. Las escrituras pasan directamente
+ * y olvidan la búsqueda en curso de su clave, para que una lectura posterior vea lo escrito.
+ */
+public class CoalescingVehicleRepository implements VehicleRepository {
+
+    private final VehicleRepository delegate;
+    private final SingleFlight<String, Vehicle> lookups;
+
+    public CoalescingVehicleRepository(VehicleRepository delegate, long maxWaitMillis) {
+        this.delegate = delegate;
+        this.lookups = new SingleFlight<>(maxWaitMillis);
+    }
+
+    @Override
+    public Vehicle findByVin(String vin) {
+        return lookups.execute(vin, () -> delegate.findByVin(vin));
+    }
+
+    @Override
+    public Vehicle save(Vehicle vehicle) {
+        Vehicle saved = delegate.save(vehicle);
+        lookups.forget(saved.getVin());
+        return saved;
+    }
+
+    @Override
+    public List<Vehicle> saveAll(Collection<Vehicle> vehicles) {
+        List<Vehicle> saved = delegate.saveAll(vehicles);
+        for (Vehicle vehicle : saved) {
+            lookups.forget(vehicle.getVin());
+        }
+        return saved;
+    }
+
+    @Override
+    public Collection<Vehicle> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void deleteByVin(String vin) {
+        delegate.deleteByVin(vin);
+        lookups.forget(vin);
+    }
+
+    public SingleFlight.Stats getStats() {
+        return lookups.getStats();
+    }
+}
@@ -0,0 +1,264 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Segmento inmutable de vehículos en estado final, proyectado en memoria (fuera del heap) y de sólo lectura.
+ *
+ * Formato del fichero (big-endian):
+ *   cabecera: magic (int), count (int), indexOffset (long)
+ *   registros: vin, make, model, year, purchasePrice, salePrice, mileage, licensePlate, status,
+ *              ownerId, fotos, createdAt, updatedAt
+ *   índice:    count entradas (hash del VIN: long, offset del registro: int) ordenadas por hash
+ *
+ * El índice vive también en el fichero proyectado, así que buscar un VIN no ocupa heap:
+ * búsqueda binaria sobre el hash y comparación del VIN para descartar colisiones.
+ */
+final class ColdSegment {
+
+    private static final int MAGIC = 0x56454843; // "VEHC"
+    private static final int HEADER_BYTES = 16;
+    private static final int INDEX_ENTRY_BYTES = 12;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int indexOffset;
+
+    private ColdSegment(Path file, MappedByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("El fichero " + file + " no es un segmento de vehículos.");
+        }
+        this.file = file;
+        this.buffer = buffer;
+        this.count = buffer.getInt(4);
+        this.indexOffset = (int) buffer.getLong(8);
+    }
+
+    /**
+     * Escribe los vehículos en un segmento nuevo y lo proyecta en memoria.
+     */
+    static ColdSegment write(Path file, Collection<Vehicle> vehicles) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(vehicles.size() * 128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(vehicles.size());
+            out.writeLong(0); // se rellena al final
+
+            long[] entries = new long[vehicles.size() * 2];
+            int i = 0;
+            for (Vehicle vehicle : vehicles) {
+                entries[i++] = ConsistentHashRing.hash(vehicle.getVin());
+                entries[i++] = out.size();
+                writeRecord(out, vehicle);
+            }
+            int indexOffset = out.size();
+            for (int e : sortedByHash(entries)) {
+                out.writeLong(entries[e * 2]);
+                out.writeInt((int) entries[e * 2 + 1]);
+            }
+            out.flush();
+
+            byte[] content = bytes.toByteArray();
+            ByteBuffer.wrap(content).putLong(8, indexOffset);
+            // Se escribe aparte, se fuerza a disco y sólo entonces se mueve: aunque el proceso o la máquina
+            // caigan, el nombre definitivo nunca apunta a un segmento a medias
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            return open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el segmento " + file, e);
+        }
+    }
+
+    static ColdSegment open(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // La proyección sigue siendo válida tras cerrar el canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ColdSegment(file, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el segmento " + file, e);
+        }
+    }
+
+    /**
+     * Busca un VIN en el índice y reconstruye el vehículo sólo si está. Devuelve null si no está.
+     */
+    Vehicle find(String vin) {
+        long hash = ConsistentHashRing.hash(vin);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midHash = buffer.getLong(indexOffset + mid * INDEX_ENTRY_BYTES);
+            if (midHash < hash) {
+                low = mid + 1;
+            } else if (midHash > hash) {
+                high = mid - 1;
+            } else {
+                // Retrocede hasta la primera entrada con el mismo hash y compara los VIN
+                int first = mid;
+                while (first > 0 && buffer.getLong(indexOffset + (first - 1) * INDEX_ENTRY_BYTES) == hash) {
+                    first--;
+                }
+                for (int e = first; e < count && buffer.getLong(indexOffset + e * INDEX_ENTRY_BYTES) == hash; e++) {
+                    int offset = buffer.getInt(indexOffset + e * INDEX_ENTRY_BYTES + 8);
+                    if (vin.equals(new Reader(offset).readString())) {
+                        return new Reader(offset).readVehicle();
+                    }
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    void forEach(Consumer<Vehicle> action) {
+        Reader reader = new Reader(HEADER_BYTES);
+        for (int i = 0; i < count; i++) {
+            action.accept(reader.readVehicle());
+        }
+    }
+
+    int count() { return count; }
+    long mappedBytes() { return buffer.capacity(); }
+    Path file() { return file; }
+
+    private static void writeRecord(DataOutputStream out, Vehicle vehicle) throws IOException {
+        writeString(out, vehicle.getVin());
+        writeString(out, vehicle.getMake());
+        writeString(out, vehicle.getModel());
+        out.writeInt(vehicle.getYear());
+        out.writeDouble(vehicle.getPurchasePrice());
+        out.writeDouble(vehicle.getSalePrice());
+        out.writeInt(vehicle.getMileage());
+        writeString(out, vehicle.getLicensePlate());
+        out.writeByte(vehicle.getStatus().ordinal());
+        writeString(out, vehicle.getOwnerId());
+        List<String> photos = vehicle.getPhotos();
+        out.writeInt(photos.size());
+        for (String photo : photos) {
+            writeString(out, photo);
+        }
+        writeTimestamp(out, vehicle.getCreatedAt());
+        writeTimestamp(out, vehicle.getUpdatedAt());
+    }
+
+    // Longitud -1 para null
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    // Devuelve las posiciones de las entradas (pares hash/offset) ordenadas por hash
+    private static int[] sortedByHash(long[] entries) {
+        Integer[] order = new Integer[entries.length / 2];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(entries[a * 2], entries[b * 2]));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Cursor de lectura con posiciones absolutas: no toca la posición del buffer compartido,
+     * así que varios hilos pueden leer el mismo segmento a la vez.
+     */
+    private final class Reader {
+
+        private int position;
+
+        Reader(int position) {
+            this.position = position;
+        }
+
+        Vehicle readVehicle() {
+            String vin = readString();
+            String make = readString();
+            String model = readString();
+            int year = readInt();
+            double purchasePrice = readDouble();
+            double salePrice = readDouble();
+            int mileage = readInt();
+            String licensePlate = readString();
+            Vehicle.VehicleStatus status = Vehicle.VehicleStatus.values()[buffer.get(position++)];
+            String ownerId = readString();
+            int photoCount = readInt();
+            List<String> photos = new ArrayList<>(photoCount);
+            for (int p = 0; p < photoCount; p++) {
+                photos.add(readString());
+            }
+            LocalDateTime createdAt = readTimestamp();
+            LocalDateTime updatedAt = readTimestamp();
+            return Vehicle.restore(vin, make, model, year, purchasePrice, salePrice, mileage, licensePlate,
+                                   status, ownerId, photos, createdAt, updatedAt);
+        }
+
+        String readString() {
+            int length = readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] utf8 = new byte[length];
+            buffer.get(position, utf8);
+            position += length;
+            return new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        private int readInt() {
+            int value = buffer.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        private double readDouble() {
+            double value = buffer.getDouble(position);
+            position += 8;
+            return value;
+        }
+
+        private LocalDateTime readTimestamp() {
+            long seconds = buffer.getLong(position);
+            int nanos = buffer.getInt(position + 8);
+            position += 12;
+            return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Anillo de hashing consistente con nodos virtuales.
+ * Al añadir o quitar un shard sólo cambia de dueño la fracción de claves que le corresponde.
+ * Las búsquedas leen una foto inmutable del anillo, sin bloqueos; los cambios la sustituyen entera.
+ */
+public class ConsistentHashRing<S> {
+
+    private final int virtualNodes;
+    private volatile Topology<S> topology = new Topology<>(new TreeMap<>(), new LinkedHashMap<>());
+
+    private record Topology<S>(NavigableMap<Long, String> ring, Map<String, S> shards) { }
+
+    public ConsistentHashRing(int virtualNodes) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Se necesita al menos un nodo virtual por shard.");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    public synchronized void addShard(String name, S shard) {
+        Topology<S> current = topology;
+        if (current.shards().containsKey(name)) {
+            throw new IllegalArgumentException("Ya existe un shard llamado " + name);
+        }
+        NavigableMap<Long, String> ring = new TreeMap<>(current.ring());
+        for (int i = 0; i < virtualNodes; i++) {
+            ring.put(hash(name + "#" + i), name);
+        }
+        Map<String, S> shards = new LinkedHashMap<>(current.shards());
+        shards.put(name, shard);
+        topology = new Topology<>(ring, shards);
+    }
+
+    public synchronized S removeShard(String name) {
+        Topology<S> current = topology;
+        if (!current.shards().containsKey(name)) {
+            throw new IllegalArgumentException("No existe el shard " + name);
+        }
+        NavigableMap<Long, String> ring = new TreeMap<>(current.ring());
+        ring.values().removeIf(name::equals);
+        Map<String, S> shards = new LinkedHashMap<>(current.shards());
+        S removed = shards.remove(name);
+        topology = new Topology<>(ring, shards);
+        return removed;
+    }
+
+    /**
+     * Metodo para obtener el nombre del shard dueño de una clave.
+     */
+    public String shardNameFor(String key) {
+        return ownerName(topology, key);
+    }
+
+    // Nombre y shard salen de la misma foto: un cambio concurrente nunca devuelve null
+    public S shardFor(String key) {
+        Topology<S> current = topology;
+        return current.shards().get(ownerName(current, key));
+    }
+
+    private static String ownerName(Topology<?> topology, String key) {
+        NavigableMap<Long, String> ring = topology.ring();
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("El anillo no tiene shards.");
+        }
+        Map.Entry<Long, String> owner = ring.ceilingEntry(hash(key));
+        return (owner != null) ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    // Shards por nombre, en orden de alta
+    public Map<String, S> shards() {
+        return Collections.unmodifiableMap(topology.shards());
+    }
+
+    /**
+     * Copia del anillo con un shard más, para calcular los nuevos dueños antes de aplicarlo.
+     */
+    synchronized ConsistentHashRing<S> withShard(String name, S shard) {
+        ConsistentHashRing<S> copy = copy();
+        copy.addShard(name, shard);
+        return copy;
+    }
+
+    /**
+     * Copia del anillo con un shard menos.
+     */
+    synchronized ConsistentHashRing<S> withoutShard(String name) {
+        ConsistentHashRing<S> copy = copy();
+        copy.removeShard(name);
+        return copy;
+    }
+
+    private ConsistentHashRing<S> copy() {
+        ConsistentHashRing<S> copy = new ConsistentHashRing<>(virtualNodes);
+        copy.topology = topology;
+        return copy;
+    }
+
+    // FNV-1a de 64 bits con mezcla final de murmur3 para repartir bien claves parecidas
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
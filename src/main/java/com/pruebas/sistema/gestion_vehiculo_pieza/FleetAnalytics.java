@@ -0,0 +1,372 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Analítica de rentabilidad de la flota.
+ *
+ * Los datos de cada vehículo se guardan en columnas de tipos primitivos (una fila por vehículo):
+ * precios en céntimos, estado, año y marca/modelo codificados por diccionario.
+ * Los agregados por marca, modelo, año y estado se actualizan en O(1) cuando llegan
+ * setSalePrice, setPurchasePrice, updateStatus, setYear, setMake o setModel.
+ * {@link #recompute()} recalcula todo desde las columnas en paralelo para verificar los incrementales.
+ *
+ * Los importes se acumulan en céntimos (long) para que sumar y restar no acumule error de redondeo
+ * y el recálculo completo coincida exactamente con los incrementales.
+ */
+public class FleetAnalytics implements VehicleChangeListener {
+
+    /**
+     * Margen de un grupo de vehículos.
+     */
+    public record Margin(long vehicles, double purchaseTotal, double saleTotal) {
+        public double profit() {
+            return saleTotal - purchaseTotal;
+        }
+
+        // Beneficio sobre el precio de venta (0 si el grupo no tiene ventas)
+        public double marginRatio() {
+            return saleTotal == 0 ? 0.0 : profit() / saleTotal;
+        }
+    }
+
+    /**
+     * Márgenes agrupados por cada dimensión. El modelo se identifica como "marca modelo".
+     */
+    public record FleetReport(Map<String, Margin> byMake, Map<String, Margin> byModel,
+                              Map<Integer, Margin> byYear, Map<Vehicle.VehicleStatus, Margin> byStatus) {
+
+        // Beneficio ya realizado: vehículos vendidos
+        public double realizedProfit() {
+            return profitOf(Vehicle.VehicleStatus.SOLD);
+        }
+
+        // Beneficio previsto: vehículos a la venta o reservados
+        public double projectedProfit() {
+            return profitOf(Vehicle.VehicleStatus.AVAILABLE) + profitOf(Vehicle.VehicleStatus.RESERVED);
+        }
+
+        private double profitOf(Vehicle.VehicleStatus status) {
+            Margin margin = byStatus.get(status);
+            return margin == null ? 0.0 : margin.profit();
+        }
+    }
+
+    private static final Vehicle.VehicleStatus[] STATUSES = Vehicle.VehicleStatus.values();
+    private static final int INITIAL_CAPACITY = 1_024;
+    private static final int RECOMPUTE_CHUNK = 1 << 16;
+
+    // --- Columnas ---
+    private String[] vins = new String[INITIAL_CAPACITY];
+    private long[] purchaseCents = new long[INITIAL_CAPACITY];
+    private long[] saleCents = new long[INITIAL_CAPACITY];
+    private byte[] status = new byte[INITIAL_CAPACITY];
+    private int[] yearId = new int[INITIAL_CAPACITY];
+    private int[] makeId = new int[INITIAL_CAPACITY];
+    private int[] modelId = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // --- Diccionarios ---
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final Dictionary<String> makes = new Dictionary<>();
+    private final Dictionary<String> models = new Dictionary<>();
+    private final Dictionary<Integer> years = new Dictionary<>();
+
+    // --- Agregados incrementales ---
+    private final Totals totals = new Totals(0, 0, 0);
+
+    /**
+     * Añade el vehículo a las columnas y se suscribe a sus cambios.
+     */
+    public void track(Vehicle vehicle) {
+        // Primero la suscripción y luego la lectura: un cambio concurrente o llega después de crear
+        // la fila, o ya se ve al leer. Cada aviso relee el vehículo entero (ver onVehicleChanged)
+        vehicle.addChangeListener(this);
+        synchronized (this) {
+            if (!slots.containsKey(vehicle.getVin())) {
+                int slot = addRow(vehicle.getVin(), vehicle.getMake(), vehicle.getModel(), vehicle.getYear(),
+                    vehicle.getStatus(), vehicle.getPurchasePrice(), vehicle.getSalePrice());
+                slots.put(vehicle.getVin(), slot);
+            }
+        }
+    }
+
+    public void trackAll(Iterable<Vehicle> vehicles) {
+        for (Vehicle vehicle : vehicles) {
+            track(vehicle);
+        }
+    }
+
+    /**
+     * Deja de seguir el vehículo y quita su fila (la última fila ocupa su hueco).
+     */
+    public void untrack(Vehicle vehicle) {
+        vehicle.removeChangeListener(this);
+        synchronized (this) {
+            Integer slot = slots.remove(vehicle.getVin());
+            if (slot != null) {
+                removeRow(slot);
+            }
+        }
+    }
+
+    /**
+     * Los avisos llegan después de que el vehículo suelte su monitor, así que dos cambios concurrentes
+     * pueden avisar en otro orden. Por eso no se usa el valor del aviso: bajo el monitor de la analítica
+     * se relee el vehículo y la fila queda con su estado actual, llegue cuando llegue el último aviso.
+     */
+    @Override
+    public void onVehicleChanged(Vehicle vehicle, Field field, double oldValue, double newValue) {
+        switch (field) {
+            case SALE_PRICE, PURCHASE_PRICE, STATUS, YEAR, MAKE, MODEL -> {
+                synchronized (this) {
+                    Integer slot = slots.get(vehicle.getVin());
+                    if (slot != null) {
+                        refreshRow(slot, vehicle);
+                    }
+                }
+            }
+            default -> {
+                // Kilometraje, matrícula, dueño o fotos no afectan a la rentabilidad
+            }
+        }
+    }
+
+    /**
+     * Márgenes actuales a partir de los agregados incrementales.
+     */
+    public synchronized FleetReport report() {
+        return totals.toReport(makes, models, years);
+    }
+
+    /**
+     * Recalcula todos los agregados recorriendo las columnas en paralelo por bloques.
+     * Bloquea las actualizaciones mientras dura: es la vía de verificación, no la de consulta.
+     */
+    public synchronized FleetReport recompute() {
+        int chunks = (size + RECOMPUTE_CHUNK - 1) / RECOMPUTE_CHUNK;
+        Totals result = IntStream.range(0, chunks).parallel()
+            .mapToObj(chunk -> {
+                Totals partial = new Totals(makes.size(), models.size(), years.size());
+                int end = Math.min(size, (chunk + 1) * RECOMPUTE_CHUNK);
+                for (int slot = chunk * RECOMPUTE_CHUNK; slot < end; slot++) {
+                    partial.add(slot, 1);
+                }
+                return partial;
+            })
+            .reduce(Totals::merge)
+            .orElseGet(() -> new Totals(0, 0, 0));
+        return result.toReport(makes, models, years);
+    }
+
+    // Comprueba que los agregados incrementales coinciden con el recálculo completo
+    public synchronized boolean verify() {
+        return report().equals(recompute());
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // --- Operaciones por fila (usadas también por el benchmark sin objetos Vehicle) ---
+
+    synchronized int addRow(String vin, String make, String model, int year, Vehicle.VehicleStatus vehicleStatus,
+                            double purchasePrice, double salePrice) {
+        ensureCapacity(size + 1);
+        int slot = size++;
+        vins[slot] = vin;
+        purchaseCents[slot] = toCents(purchasePrice);
+        saleCents[slot] = toCents(salePrice);
+        status[slot] = (byte) vehicleStatus.ordinal();
+        makeId[slot] = makes.idOf(Objects.requireNonNullElse(make, ""));
+        modelId[slot] = models.idOf(make + " " + model);
+        yearId[slot] = years.idOf(year);
+        totals.add(slot, 1);
+        return slot;
+    }
+
+    synchronized void updateSalePrice(int slot, double salePrice) {
+        totals.add(slot, -1);
+        saleCents[slot] = toCents(salePrice);
+        totals.add(slot, 1);
+    }
+
+    synchronized void updatePurchasePrice(int slot, double purchasePrice) {
+        totals.add(slot, -1);
+        purchaseCents[slot] = toCents(purchasePrice);
+        totals.add(slot, 1);
+    }
+
+    synchronized void updateStatus(int slot, Vehicle.VehicleStatus vehicleStatus) {
+        totals.add(slot, -1);
+        status[slot] = (byte) vehicleStatus.ordinal();
+        totals.add(slot, 1);
+    }
+
+    private void refreshRow(int slot, Vehicle vehicle) {
+        totals.add(slot, -1);
+        purchaseCents[slot] = toCents(vehicle.getPurchasePrice());
+        saleCents[slot] = toCents(vehicle.getSalePrice());
+        status[slot] = (byte) vehicle.getStatus().ordinal();
+        String make = vehicle.getMake();
+        makeId[slot] = makes.idOf(Objects.requireNonNullElse(make, ""));
+        modelId[slot] = models.idOf(make + " " + vehicle.getModel());
+        yearId[slot] = years.idOf(vehicle.getYear());
+        totals.add(slot, 1);
+    }
+
+    private void removeRow(int slot) {
+        totals.add(slot, -1);
+        int last = --size;
+        if (slot != last) {
+            vins[slot] = vins[last];
+            purchaseCents[slot] = purchaseCents[last];
+            saleCents[slot] = saleCents[last];
+            status[slot] = status[last];
+            makeId[slot] = makeId[last];
+            modelId[slot] = modelId[last];
+            yearId[slot] = yearId[last];
+            if (vins[slot] != null) {
+                slots.put(vins[slot], slot);
+            }
+        }
+        vins[last] = null;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= purchaseCents.length) {
+            return;
+        }
+        int capacity = Math.max(required, purchaseCents.length + (purchaseCents.length >> 1));
+        vins = Arrays.copyOf(vins, capacity);
+        purchaseCents = Arrays.copyOf(purchaseCents, capacity);
+        saleCents = Arrays.copyOf(saleCents, capacity);
+        status = Arrays.copyOf(status, capacity);
+        makeId = Arrays.copyOf(makeId, capacity);
+        modelId = Arrays.copyOf(modelId, capacity);
+        yearId = Arrays.copyOf(yearId, capacity);
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Codificación por diccionario: cada valor distinto recibe un id consecutivo.
+     */
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> ids = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int idOf(T value) {
+            return ids.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        T valueOf(int id) { return values.get(id); }
+        int size() { return values.size(); }
+    }
+
+    /**
+     * Sumas (vehículos, compra, venta) por id de cada dimensión.
+     * Lee las columnas de la instancia exterior, así que sólo se usa con el monitor tomado.
+     */
+    private final class Totals {
+        private final GroupSums byMake;
+        private final GroupSums byModel;
+        private final GroupSums byYear;
+        private final GroupSums byStatus = new GroupSums(STATUSES.length);
+
+        Totals(int makeCount, int modelCount, int yearCount) {
+            this.byMake = new GroupSums(makeCount);
+            this.byModel = new GroupSums(modelCount);
+            this.byYear = new GroupSums(yearCount);
+        }
+
+        // sign = 1 suma la fila a sus grupos, -1 la resta
+        void add(int slot, int sign) {
+            long purchase = sign * purchaseCents[slot];
+            long sale = sign * saleCents[slot];
+            byMake.add(makeId[slot], sign, purchase, sale);
+            byModel.add(modelId[slot], sign, purchase, sale);
+            byYear.add(yearId[slot], sign, purchase, sale);
+            byStatus.add(status[slot], sign, purchase, sale);
+        }
+
+        Totals merge(Totals other) {
+            byMake.merge(other.byMake);
+            byModel.merge(other.byModel);
+            byYear.merge(other.byYear);
+            byStatus.merge(other.byStatus);
+            return this;
+        }
+
+        FleetReport toReport(Dictionary<String> makeNames, Dictionary<String> modelNames, Dictionary<Integer> yearValues) {
+            Map<Vehicle.VehicleStatus, Margin> statusMargins = new EnumMap<>(Vehicle.VehicleStatus.class);
+            statusMargins.putAll(byStatus.toMap(id -> STATUSES[id]));
+            return new FleetReport(byMake.toMap(makeNames::valueOf), byModel.toMap(modelNames::valueOf),
+                byYear.toMap(yearValues::valueOf), statusMargins);
+        }
+    }
+
+    private static final class GroupSums {
+        private long[] count;
+        private long[] purchase;
+        private long[] sale;
+
+        GroupSums(int groups) {
+            this.count = new long[Math.max(groups, 8)];
+            this.purchase = new long[count.length];
+            this.sale = new long[count.length];
+        }
+
+        void add(int group, int sign, long purchaseCents, long saleCents) {
+            ensureGroup(group);
+            count[group] += sign;
+            purchase[group] += purchaseCents;
+            sale[group] += saleCents;
+        }
+
+        void merge(GroupSums other) {
+            for (int group = 0; group < other.count.length; group++) {
+                if (other.count[group] != 0) {
+                    ensureGroup(group);
+                    count[group] += other.count[group];
+                    purchase[group] += other.purchase[group];
+                    sale[group] += other.sale[group];
+                }
+            }
+        }
+
+        private void ensureGroup(int group) {
+            if (group >= count.length) {
+                int capacity = Math.max(group + 1, count.length * 2);
+                count = Arrays.copyOf(count, capacity);
+                purchase = Arrays.copyOf(purchase, capacity);
+                sale = Arrays.copyOf(sale, capacity);
+            }
+        }
+
+        // Sólo los grupos con algún vehículo
+        <K> Map<K, Margin> toMap(IntFunction<K> keyOf) {
+            Map<K, Margin> result = new TreeMap<>();
+            for (int group = 0; group < count.length; group++) {
+                if (count[group] > 0) {
+                    result.put(keyOf.apply(group), new Margin(count[group], purchase[group] / 100.0, sale[group] / 100.0));
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositorio de piezas en memoria, indexado por partNumber.
+ * Cada instancia tiene su propio mapa concurrente, por lo que puede usarse
+ * como shard independiente de {@link ShardedPartRepository}.
+ */
+public class InMemoryPartRepository implements PartRepository {
+
+    private final ConcurrentHashMap<String, Part> parts = new ConcurrentHashMap<>();
+
+    @Override
+    public Part findByPartNumber(String partNumber) {
+        return parts.get(partNumber);
+    }
+
+    @Override
+    public Part save(Part part) {
+        parts.put(part.getPartNumber(), part);
+        return part;
+    }
+
+    @Override
+    public Collection<Part> findAll() {
+        return new ArrayList<>(parts.values());
+    }
+
+    @Override
+    public void deleteByPartNumber(String partNumber) {
+        parts.remove(partNumber);
+    }
+
+    public int size() {
+        return parts.size();
+    }
+}
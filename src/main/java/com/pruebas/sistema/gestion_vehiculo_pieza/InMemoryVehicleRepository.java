@@ -0,0 +1,40 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Repositorio de vehículos en memoria, indexado por VIN.
+ * Cada instancia tiene su propio mapa concurrente, por lo que puede usarse
+ * como shard independiente de {@link ShardedVehicleRepository}.
+ */
+public class InMemoryVehicleRepository implements VehicleRepository {
+
+    private final ConcurrentHashMap<String, Vehicle> vehicles = new ConcurrentHashMap<>();
+
+    @Override
+    public Vehicle findByVin(String vin) {
+        return vehicles.get(vin);
+    }
+
+    @Override
+    public Vehicle save(Vehicle vehicle) {
+        vehicles.put(vehicle.getVin(), vehicle);
+        return vehicle;
+    }
+
+    @Override
+    public Collection<Vehicle> findAll() {
+        return new ArrayList<>(vehicles.values());
+    }
+
+    @Override
+    public void deleteByVin(String vin) {
+        vehicles.remove(vin);
+    }
+
+    public int size() {
+        return vehicles.size();
+    }
+}
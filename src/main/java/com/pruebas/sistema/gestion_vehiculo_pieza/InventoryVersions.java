@@ -0,0 +1,207 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Control de concurrencia multiversión (MVCC) para los informes sobre el inventario vivo.
+ *
+ * Los repositorios devueltos por {@link #track} guardan normalmente en el repositorio real y,
+ * además, publican una copia inmutable de cada pieza o vehículo con un número de versión global.
+ * Un {@link ReadView} fija una versión y ve exactamente el inventario confirmado hasta ella,
+ * aunque removeStock o reserveVehicle sigan modificando los objetos vivos.
+ * Las versiones antiguas se liberan cuando ya no queda ningún lector que las necesite.
+ */
+public class InventoryVersions {
+
+    // Sólo protege la copia, la asignación de versión y su instalación: no se hace E/S bajo él
+    private final Object commitLock = new Object();
+    private final ConcurrentSkipListMap<Long, Integer> activeViews = new ConcurrentSkipListMap<>();
+    private final VersionedStore<String, PartSnapshot> parts = new VersionedStore<>();
+    private final VersionedStore<String, VehicleSnapshot> vehicles = new VersionedStore<>();
+    private volatile long currentVersion;
+
+    /**
+     * Envuelve un repositorio de piezas. El contenido actual se publica como versión inicial.
+     */
+    public PartRepository track(PartRepository delegate) {
+        commitParts(delegate.findAll());
+        return new VersionedPartRepository(delegate);
+    }
+
+    /**
+     * Envuelve un repositorio de vehículos. El contenido actual se publica como versión inicial.
+     */
+    public VehicleRepository track(VehicleRepository delegate) {
+        commitVehicles(delegate.findAll());
+        return new VersionedVehicleRepository(delegate);
+    }
+
+    /**
+     * Abre una vista de lectura sobre la última versión confirmada.
+     * Debe cerrarse (try-with-resources) para que sus versiones puedan liberarse.
+     */
+    public ReadView openReadView() {
+        synchronized (commitLock) {
+            long version = currentVersion;
+            activeViews.merge(version, 1, Integer::sum);
+            return new ReadView(this, version);
+        }
+    }
+
+    /**
+     * Libera todas las versiones que ya no ve ningún lector. Devuelve cuántas se han liberado.
+     * Se ejecuta sola al cerrar la última vista abierta.
+     */
+    public int collectGarbage() {
+        long watermark;
+        synchronized (commitLock) {
+            watermark = watermark(currentVersion);
+        }
+        return parts.collect(watermark) + vehicles.collect(watermark);
+    }
+
+    public long getCurrentVersion() { return currentVersion; }
+    public int getActiveViewCount() { return activeViews.values().stream().mapToInt(Integer::intValue).sum(); }
+    public long getRetainedVersionCount() { return parts.versionCount() + vehicles.versionCount(); }
+
+    PartSnapshot readPart(String partNumber, long version) { return parts.read(partNumber, version); }
+    VehicleSnapshot readVehicle(String vin, long version) { return vehicles.read(vin, version); }
+    VersionedStore<String, PartSnapshot> parts() { return parts; }
+    VersionedStore<String, VehicleSnapshot> vehicles() { return vehicles; }
+
+    void release(long version) {
+        activeViews.computeIfPresent(version, (v, count) -> count == 1 ? null : count - 1);
+        if (activeViews.isEmpty()) {
+            collectGarbage();
+        }
+    }
+
+    // Versión más antigua que puede leer alguien; debe llamarse con commitLock tomado.
+    // latest es la versión que se va a publicar: sin vistas abiertas basta con conservarla a ella
+    private long watermark(long latest) {
+        Map.Entry<Long, Integer> oldest = activeViews.firstEntry();
+        return oldest == null ? latest : Math.min(oldest.getKey(), latest);
+    }
+
+    // Un lote entero comparte versión: ningún lector ve la mitad de un saveAll.
+    // La copia se toma dentro del mismo bloqueo que asigna la versión: si se tomara antes, dos guardados
+    // concurrentes podrían confirmarse en orden inverso y una versión más nueva mostraría datos más viejos
+    private void commitParts(Collection<Part> saved) {
+        synchronized (commitLock) {
+            long version = currentVersion + 1;
+            long watermark = watermark(version);
+            for (Part part : saved) {
+                parts.install(part.getPartNumber(), version, PartSnapshot.of(part), watermark);
+            }
+            currentVersion = version;
+        }
+    }
+
+    private void commitVehicles(Collection<Vehicle> saved) {
+        synchronized (commitLock) {
+            long version = currentVersion + 1;
+            long watermark = watermark(version);
+            for (Vehicle vehicle : saved) {
+                vehicles.install(vehicle.getVin(), version, VehicleSnapshot.of(vehicle), watermark);
+            }
+            currentVersion = version;
+        }
+    }
+
+    private void commitPartDeletion(String partNumber) {
+        synchronized (commitLock) {
+            long version = currentVersion + 1;
+            parts.install(partNumber, version, null, watermark(version));
+            currentVersion = version;
+        }
+    }
+
+    private void commitVehicleDeletion(String vin) {
+        synchronized (commitLock) {
+            long version = currentVersion + 1;
+            vehicles.install(vin, version, null, watermark(version));
+            currentVersion = version;
+        }
+    }
+
+    private final class VersionedPartRepository implements PartRepository {
+
+        private final PartRepository delegate;
+
+        VersionedPartRepository(PartRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Part findByPartNumber(String partNumber) {
+            return delegate.findByPartNumber(partNumber);
+        }
+
+        @Override
+        public Part save(Part part) {
+            Part saved = delegate.save(part);
+            commitParts(List.of(saved));
+            return saved;
+        }
+
+        @Override
+        public List<Part> saveAll(Collection<Part> toSave) {
+            List<Part> saved = delegate.saveAll(toSave);
+            commitParts(saved);
+            return saved;
+        }
+
+        @Override
+        public Collection<Part> findAll() {
+            return delegate.findAll();
+        }
+
+        @Override
+        public void deleteByPartNumber(String partNumber) {
+            delegate.deleteByPartNumber(partNumber);
+            commitPartDeletion(partNumber);
+        }
+    }
+
+    private final class VersionedVehicleRepository implements VehicleRepository {
+
+        private final VehicleRepository delegate;
+
+        VersionedVehicleRepository(VehicleRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Vehicle findByVin(String vin) {
+            return delegate.findByVin(vin);
+        }
+
+        @Override
+        public Vehicle save(Vehicle vehicle) {
+            Vehicle saved = delegate.save(vehicle);
+            commitVehicles(List.of(saved));
+            return saved;
+        }
+
+        @Override
+        public List<Vehicle> saveAll(Collection<Vehicle> toSave) {
+            List<Vehicle> saved = delegate.saveAll(toSave);
+            commitVehicles(saved);
+            return saved;
+        }
+
+        @Override
+        public Collection<Vehicle> findAll() {
+            return delegate.findAll();
+        }
+
+        @Override
+        public void deleteByVin(String vin) {
+            delegate.deleteByVin(vin);
+            commitVehicleDeletion(vin);
+        }
+    }
+}
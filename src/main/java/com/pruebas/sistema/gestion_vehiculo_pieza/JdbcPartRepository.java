@@ -0,0 +1,235 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementación JDBC de PartRepository pensada para una base embebida (H2).
+ * - save y saveAll hacen upsert (MERGE) en lotes JDBC.
+ * - Los vehículos compatibles viven en una tabla secundaria y se cargan de forma perezosa.
+ */
+public class JdbcPartRepository implements PartRepository {
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String CREATE_PARTS =
+        "CREATE TABLE IF NOT EXISTS parts ("
+        + " part_number VARCHAR(64) PRIMARY KEY,"
+        + " name VARCHAR(255),"
+        + " description VARCHAR(2000),"
+        + " quantity_in_stock INT NOT NULL,"
+        + " low_stock_threshold INT NOT NULL,"
+        + " unit_price DOUBLE PRECISION NOT NULL,"
+        + " location VARCHAR(64),"
+        + " source_vehicle_vin VARCHAR(64),"
+        + " supplier_id VARCHAR(64),"
+        + " created_at TIMESTAMP(9) NOT NULL,"
+        + " updated_at TIMESTAMP(9) NOT NULL)";
+    private static final String CREATE_COMPATIBLES =
+        "CREATE TABLE IF NOT EXISTS part_compatible_vehicles ("
+        + " part_number VARCHAR(64) NOT NULL,"
+        + " seq INT NOT NULL,"
+        + " vehicle_vin VARCHAR(64) NOT NULL,"
+        + " PRIMARY KEY (part_number, seq))";
+
+    private static final String UPSERT_PART =
+        "MERGE INTO parts (part_number, name, description, quantity_in_stock, low_stock_threshold, unit_price,"
+        + " location, source_vehicle_vin, supplier_id, created_at, updated_at)"
+        + " KEY (part_number) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_PART =
+        "SELECT part_number, name, description, quantity_in_stock, low_stock_threshold, unit_price,"
+        + " location, source_vehicle_vin, supplier_id, created_at, updated_at"
+        + " FROM parts WHERE part_number = ?";
+    private static final String SELECT_ALL_PARTS =
+        "SELECT part_number, name, description, quantity_in_stock, low_stock_threshold, unit_price,"
+        + " location, source_vehicle_vin, supplier_id, created_at, updated_at"
+        + " FROM parts";
+    private static final String DELETE_PART =
+        "DELETE FROM parts WHERE part_number = ?";
+    private static final String DELETE_COMPATIBLES =
+        "DELETE FROM part_compatible_vehicles WHERE part_number = ?";
+    private static final String INSERT_COMPATIBLE =
+        "INSERT INTO part_compatible_vehicles (part_number, seq, vehicle_vin) VALUES (?, ?, ?)";
+    private static final String SELECT_COMPATIBLES =
+        "SELECT vehicle_vin FROM part_compatible_vehicles WHERE part_number = ? ORDER BY seq";
+
+    private final JdbcSessionPool pool;
+    private final int batchSize;
+
+    public JdbcPartRepository(JdbcSessionPool pool) {
+        this(pool, DEFAULT_BATCH_SIZE);
+    }
+
+    public JdbcPartRepository(JdbcSessionPool pool, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero.");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+        createSchema();
+    }
+
+    private void createSchema() {
+        pool.inTransaction(session -> {
+            try (Statement statement = session.getConnection().createStatement()) {
+                statement.execute(CREATE_PARTS);
+                statement.execute(CREATE_COMPATIBLES);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Búsqueda por clave primaria. Los compatibles no se leen hasta que se usan.
+     */
+    @Override
+    public Part findByPartNumber(String partNumber) {
+        return pool.inTransaction(session -> {
+            PreparedStatement select = session.prepare(SELECT_PART);
+            select.setString(1, partNumber);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+        });
+    }
+
+    @Override
+    public Collection<Part> findAll() {
+        return pool.inTransaction(session -> {
+            List<Part> parts = new ArrayList<>();
+            try (ResultSet rs = session.prepare(SELECT_ALL_PARTS).executeQuery()) {
+                while (rs.next()) {
+                    parts.add(mapRow(rs));
+                }
+            }
+            return parts;
+        });
+    }
+
+    @Override
+    public void deleteByPartNumber(String partNumber) {
+        pool.inTransaction(session -> {
+            PreparedStatement deleteCompatibles = session.prepare(DELETE_COMPATIBLES);
+            deleteCompatibles.setString(1, partNumber);
+            deleteCompatibles.executeUpdate();
+            PreparedStatement deletePart = session.prepare(DELETE_PART);
+            deletePart.setString(1, partNumber);
+            deletePart.executeUpdate();
+            return null;
+        });
+    }
+
+    private Part mapRow(ResultSet rs) throws SQLException {
+        String key = rs.getString("part_number");
+        return Part.restore(
+            key,
+            rs.getString("name"),
+            rs.getInt("quantity_in_stock"),
+            rs.getDouble("unit_price"),
+            rs.getString("location"),
+            rs.getInt("low_stock_threshold"),
+            rs.getString("description"),
+            rs.getString("source_vehicle_vin"),
+            rs.getString("supplier_id"),
+            new LazyList<>(() -> loadCompatibles(key)),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class));
+    }
+
+    @Override
+    public Part save(Part part) {
+        pool.inTransaction(session -> {
+            writeBatch(session, List.of(part));
+            return null;
+        });
+        return part;
+    }
+
+    /**
+     * Guarda las piezas en lotes de {@code batchSize}, una transacción por lote.
+     */
+    @Override
+    public List<Part> saveAll(Collection<Part> parts) {
+        List<Part> pending = new ArrayList<>(parts);
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Part> chunk = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            pool.inTransaction(session -> {
+                writeBatch(session, chunk);
+                return null;
+            });
+        }
+        return pending;
+    }
+
+    private void writeBatch(JdbcSessionPool.Session session, List<Part> parts) throws SQLException {
+        PreparedStatement upsert = session.prepare(UPSERT_PART);
+        for (Part part : parts) {
+            upsert.setString(1, part.getPartNumber());
+            setNullableString(upsert, 2, part.getName());
+            setNullableString(upsert, 3, part.getDescription());
+            upsert.setInt(4, part.getQuantityInStock());
+            upsert.setInt(5, part.getLowStockThreshold());
+            upsert.setDouble(6, part.getUnitPrice());
+            setNullableString(upsert, 7, part.getLocation());
+            setNullableString(upsert, 8, part.getSourceVehicleVin());
+            setNullableString(upsert, 9, part.getSupplierId());
+            upsert.setObject(10, part.getCreatedAt());
+            upsert.setObject(11, part.getUpdatedAt());
+            upsert.addBatch();
+        }
+        upsert.executeBatch();
+
+        // Sólo se reescribe la tabla secundaria de las piezas cuya lista llegó a cargarse
+        PreparedStatement delete = session.prepare(DELETE_COMPATIBLES);
+        PreparedStatement insert = session.prepare(INSERT_COMPATIBLE);
+        boolean anyLoaded = false;
+        for (Part part : parts) {
+            if (!part.isCompatibleVehiclesLoaded()) {
+                continue;
+            }
+            anyLoaded = true;
+            delete.setString(1, part.getPartNumber());
+            delete.addBatch();
+            List<String> compatibles = part.getCompatibleVehicles();
+            for (int i = 0; i < compatibles.size(); i++) {
+                insert.setString(1, part.getPartNumber());
+                insert.setInt(2, i);
+                insert.setString(3, compatibles.get(i));
+                insert.addBatch();
+            }
+        }
+        if (anyLoaded) {
+            delete.executeBatch();
+            insert.executeBatch();
+        }
+    }
+
+    private List<String> loadCompatibles(String partNumber) {
+        return pool.inTransaction(session -> {
+            PreparedStatement select = session.prepare(SELECT_COMPATIBLES);
+            select.setString(1, partNumber);
+            List<String> vins = new ArrayList<>();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    vins.add(rs.getString(1));
+                }
+            }
+            return vins;
+        });
+    }
+
+    private static void setNullableString(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setString(index, value);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de conexiones JDBC de tamaño fijo.
+ * Cada sesión conserva su conexión y una caché de PreparedStatement, de modo que
+ * una misma sentencia SQL se prepara una sola vez por conexión y se reutiliza.
+ */
+public class JdbcSessionPool implements AutoCloseable {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final long borrowTimeoutMillis;
+    private final BlockingQueue<Session> idle;
+    private final List<Session> all = new ArrayList<>();
+
+    public JdbcSessionPool(String url, String user, String password, int size, long borrowTimeoutMillis) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("El tamaño del pool debe ser mayor que cero.");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            Session session = new Session(openConnection());
+            all.add(session);
+            idle.add(session);
+        }
+    }
+
+    /**
+     * Crea un pool dimensionado para la concurrencia de la máquina (2 conexiones por núcleo).
+     */
+    public static JdbcSessionPool forUrl(String url, String user, String password) {
+        return new JdbcSessionPool(url, user, password, Runtime.getRuntime().availableProcessors() * 2, 5_000);
+    }
+
+    /**
+     * Ejecuta el trabajo dentro de una transacción: commit si termina bien, rollback si falla.
+     */
+    public <T> T inTransaction(SqlWork<T> work) {
+        Session session = borrow();
+        boolean broken = false;
+        try {
+            T result = work.execute(session);
+            session.connection.commit();
+            return result;
+        } catch (SQLException e) {
+            broken = rollbackQuietly(session);
+            throw new IllegalStateException("Error de acceso a datos: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            broken = rollbackQuietly(session);
+            throw e;
+        } finally {
+            release(session, broken);
+        }
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Session session : all) {
+            session.closeQuietly();
+        }
+        idle.clear();
+    }
+
+    private Session borrow() {
+        try {
+            Session session = idle.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (session == null) {
+                throw new IllegalStateException(
+                    "No hay conexiones libres tras " + borrowTimeoutMillis + " ms (pool de " + all.size() + ").");
+            }
+            if (session.connection == null) {
+                reconnect(session);
+            }
+            return session;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando una conexión.", e);
+        }
+    }
+
+    // Si la conexión quedó inservible se reemplaza por una nueva antes de devolverla al pool.
+    // Si tampoco se puede abrir la nueva, la sesión vuelve sin conexión y se reconecta al prestarla:
+    // así no se pierde el hueco del pool ni se tapa la excepción del trabajo que la rompió.
+    private void release(Session session, boolean broken) {
+        if (broken) {
+            session.closeQuietly();
+            try {
+                session.reset(openConnection());
+            } catch (IllegalStateException e) {
+                session.reset(null);
+            }
+        }
+        idle.add(session);
+    }
+
+    // Si la base sigue sin responder, la sesión vuelve al pool para que otro préstamo lo reintente
+    private void reconnect(Session session) {
+        try {
+            session.reset(openConnection());
+        } catch (IllegalStateException e) {
+            idle.add(session);
+            throw e;
+        }
+    }
+
+    // Devuelve true si la conexión ya no es válida tras el rollback
+    private boolean rollbackQuietly(Session session) {
+        try {
+            session.clearBatches();
+            session.connection.rollback();
+            return !session.connection.isValid(1);
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private Connection openConnection() {
+        try {
+            Connection connection = DriverManager.getConnection(url, user, password);
+            connection.setAutoCommit(false);
+            return connection;
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo abrir la conexión a " + url, e);
+        }
+    }
+
+    /**
+     * Trabajo a ejecutar con una sesión prestada.
+     */
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T execute(Session session) throws SQLException;
+    }
+
+    /**
+     * Conexión prestada junto con su caché de sentencias preparadas.
+     */
+    public static final class Session {
+
+        private Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private Session(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * Devuelve la sentencia preparada para el SQL dado, preparándola sólo la primera vez.
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+
+        // Descarta lotes a medio construir para que no se cuelen en el siguiente uso
+        private void clearBatches() throws SQLException {
+            for (PreparedStatement statement : statements.values()) {
+                statement.clearBatch();
+            }
+        }
+
+        public Connection getConnection() {
+            return connection;
+        }
+
+        private void reset(Connection newConnection) {
+            statements.clear();
+            this.connection = newConnection;
+        }
+
+        private void closeQuietly() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connection.close(); // Cierra también las sentencias en caché
+            } catch (SQLException ignored) {
+                // La conexión ya estaba cerrada o rota
+            }
+        }
+    }
+}
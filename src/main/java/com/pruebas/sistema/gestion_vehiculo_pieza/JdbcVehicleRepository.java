@@ -0,0 +1,238 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementación JDBC de VehicleRepository pensada para una base embebida (H2).
+ * - save y saveAll hacen upsert (MERGE) en lotes JDBC.
+ * - Las fotos viven en una tabla secundaria y se cargan de forma perezosa.
+ */
+public class JdbcVehicleRepository implements VehicleRepository {
+
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String CREATE_VEHICLES =
+        "CREATE TABLE IF NOT EXISTS vehicles ("
+        + " vin VARCHAR(17) PRIMARY KEY,"
+        + " make VARCHAR(64),"
+        + " model VARCHAR(64),"
+        + " model_year INT NOT NULL,"
+        + " purchase_price DOUBLE PRECISION NOT NULL,"
+        + " sale_price DOUBLE PRECISION NOT NULL,"
+        + " mileage INT NOT NULL,"
+        + " license_plate VARCHAR(16),"
+        + " status VARCHAR(20) NOT NULL,"
+        + " owner_id VARCHAR(64),"
+        + " created_at TIMESTAMP(9) NOT NULL,"
+        + " updated_at TIMESTAMP(9) NOT NULL)";
+    private static final String CREATE_PHOTOS =
+        "CREATE TABLE IF NOT EXISTS vehicle_photos ("
+        + " vin VARCHAR(17) NOT NULL,"
+        + " seq INT NOT NULL,"
+        + " url VARCHAR(1024) NOT NULL,"
+        + " PRIMARY KEY (vin, seq))";
+
+    private static final String UPSERT_VEHICLE =
+        "MERGE INTO vehicles (vin, make, model, model_year, purchase_price, sale_price, mileage,"
+        + " license_plate, status, owner_id, created_at, updated_at)"
+        + " KEY (vin) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_VEHICLE =
+        "SELECT vin, make, model, model_year, purchase_price, sale_price, mileage,"
+        + " license_plate, status, owner_id, created_at, updated_at"
+        + " FROM vehicles WHERE vin = ?";
+    private static final String SELECT_ALL_VEHICLES =
+        "SELECT vin, make, model, model_year, purchase_price, sale_price, mileage,"
+        + " license_plate, status, owner_id, created_at, updated_at"
+        + " FROM vehicles";
+    private static final String DELETE_VEHICLE =
+        "DELETE FROM vehicles WHERE vin = ?";
+    private static final String DELETE_PHOTOS =
+        "DELETE FROM vehicle_photos WHERE vin = ?";
+    private static final String INSERT_PHOTO =
+        "INSERT INTO vehicle_photos (vin, seq, url) VALUES (?, ?, ?)";
+    private static final String SELECT_PHOTOS =
+        "SELECT url FROM vehicle_photos WHERE vin = ? ORDER BY seq";
+
+    private final JdbcSessionPool pool;
+    private final int batchSize;
+
+    public JdbcVehicleRepository(JdbcSessionPool pool) {
+        this(pool, DEFAULT_BATCH_SIZE);
+    }
+
+    public JdbcVehicleRepository(JdbcSessionPool pool, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero.");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+        createSchema();
+    }
+
+    private void createSchema() {
+        pool.inTransaction(session -> {
+            try (Statement statement = session.getConnection().createStatement()) {
+                statement.execute(CREATE_VEHICLES);
+                statement.execute(CREATE_PHOTOS);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Búsqueda por clave primaria. Las fotos no se leen hasta que se usan.
+     */
+    @Override
+    public Vehicle findByVin(String vin) {
+        return pool.inTransaction(session -> {
+            PreparedStatement select = session.prepare(SELECT_VEHICLE);
+            select.setString(1, vin);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? mapRow(rs) : null;
+            }
+        });
+    }
+
+    @Override
+    public Collection<Vehicle> findAll() {
+        return pool.inTransaction(session -> {
+            List<Vehicle> vehicles = new ArrayList<>();
+            try (ResultSet rs = session.prepare(SELECT_ALL_VEHICLES).executeQuery()) {
+                while (rs.next()) {
+                    vehicles.add(mapRow(rs));
+                }
+            }
+            return vehicles;
+        });
+    }
+
+    @Override
+    public void deleteByVin(String vin) {
+        pool.inTransaction(session -> {
+            PreparedStatement deletePhotos = session.prepare(DELETE_PHOTOS);
+            deletePhotos.setString(1, vin);
+            deletePhotos.executeUpdate();
+            PreparedStatement deleteVehicle = session.prepare(DELETE_VEHICLE);
+            deleteVehicle.setString(1, vin);
+            deleteVehicle.executeUpdate();
+            return null;
+        });
+    }
+
+    private Vehicle mapRow(ResultSet rs) throws SQLException {
+        String key = rs.getString("vin");
+        return Vehicle.restore(
+            key,
+            rs.getString("make"),
+            rs.getString("model"),
+            rs.getInt("model_year"),
+            rs.getDouble("purchase_price"),
+            rs.getDouble("sale_price"),
+            rs.getInt("mileage"),
+            rs.getString("license_plate"),
+            Vehicle.VehicleStatus.valueOf(rs.getString("status")),
+            rs.getString("owner_id"),
+            new LazyList<>(() -> loadPhotos(key)),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class));
+    }
+
+    @Override
+    public Vehicle save(Vehicle vehicle) {
+        pool.inTransaction(session -> {
+            writeBatch(session, List.of(vehicle));
+            return null;
+        });
+        return vehicle;
+    }
+
+    /**
+     * Guarda los vehículos en lotes de {@code batchSize}, una transacción por lote.
+     */
+    @Override
+    public List<Vehicle> saveAll(Collection<Vehicle> vehicles) {
+        List<Vehicle> pending = new ArrayList<>(vehicles);
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Vehicle> chunk = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            pool.inTransaction(session -> {
+                writeBatch(session, chunk);
+                return null;
+            });
+        }
+        return pending;
+    }
+
+    private void writeBatch(JdbcSessionPool.Session session, List<Vehicle> vehicles) throws SQLException {
+        PreparedStatement upsert = session.prepare(UPSERT_VEHICLE);
+        for (Vehicle vehicle : vehicles) {
+            upsert.setString(1, vehicle.getVin());
+            setNullableString(upsert, 2, vehicle.getMake());
+            setNullableString(upsert, 3, vehicle.getModel());
+            upsert.setInt(4, vehicle.getYear());
+            upsert.setDouble(5, vehicle.getPurchasePrice());
+            upsert.setDouble(6, vehicle.getSalePrice());
+            upsert.setInt(7, vehicle.getMileage());
+            setNullableString(upsert, 8, vehicle.getLicensePlate());
+            upsert.setString(9, vehicle.getStatus().name());
+            setNullableString(upsert, 10, vehicle.getOwnerId());
+            upsert.setObject(11, vehicle.getCreatedAt());
+            upsert.setObject(12, vehicle.getUpdatedAt());
+            upsert.addBatch();
+        }
+        upsert.executeBatch();
+
+        // Sólo se reescribe la tabla de fotos de los vehículos cuya lista llegó a cargarse
+        PreparedStatement delete = session.prepare(DELETE_PHOTOS);
+        PreparedStatement insert = session.prepare(INSERT_PHOTO);
+        boolean anyLoaded = false;
+        for (Vehicle vehicle : vehicles) {
+            if (!vehicle.isPhotosLoaded()) {
+                continue;
+            }
+            anyLoaded = true;
+            delete.setString(1, vehicle.getVin());
+            delete.addBatch();
+            List<String> photos = vehicle.getPhotos();
+            for (int i = 0; i < photos.size(); i++) {
+                insert.setString(1, vehicle.getVin());
+                insert.setInt(2, i);
+                insert.setString(3, photos.get(i));
+                insert.addBatch();
+            }
+        }
+        if (anyLoaded) {
+            delete.executeBatch();
+            insert.executeBatch();
+        }
+    }
+
+    private List<String> loadPhotos(String vin) {
+        return pool.inTransaction(session -> {
+            PreparedStatement select = session.prepare(SELECT_PHOTOS);
+            select.setString(1, vin);
+            List<String> urls = new ArrayList<>();
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    urls.add(rs.getString(1));
+                }
+            }
+            return urls;
+        });
+    }
+
+    private static void setNullableString(PreparedStatement statement, int index, String value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, Types.VARCHAR);
+        } else {
+            statement.setString(index, value);
+        }
+    }
+}
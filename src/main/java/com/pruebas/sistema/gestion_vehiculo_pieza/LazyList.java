@@ -0,0 +1,59 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Lista que difiere la carga de su contenido hasta el primer acceso.
+ * Se usa para las tablas secundarias (compatibles de Part y fotos de Vehicle)
+ * que no hace falta leer en una búsqueda por clave primaria.
+ */
+public class LazyList<E> extends AbstractList<E> {
+
+    private Supplier<List<E>> loader;
+    private volatile List<E> delegate;
+
+    public LazyList(Supplier<List<E>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Devuelve true si la lista no es perezosa o si ya se cargó.
+     */
+    public static boolean isLoaded(List<?> list) {
+        return !(list instanceof LazyList) || ((LazyList<?>) list).delegate != null;
+    }
+
+    // Carga el contenido una sola vez (doble comprobación sobre el campo volatile)
+    private List<E> delegate() {
+        List<E> current = delegate;
+        if (current == null) {
+            synchronized (this) {
+                current = delegate;
+                if (current == null) {
+                    current = new ArrayList<>(loader.get());
+                    delegate = current;
+                    loader = null;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public E get(int index) { return delegate().get(index); }
+
+    @Override
+    public int size() { return delegate().size(); }
+
+    @Override
+    public E set(int index, E element) { return delegate().set(index, element); }
+
+    @Override
+    public void add(int index, E element) { delegate().add(index, element); }
+
+    @Override
+    public E remove(int index) { return delegate().remove(index); }
+}
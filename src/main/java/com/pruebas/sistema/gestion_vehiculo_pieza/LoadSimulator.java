@@ -0,0 +1,327 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Simulador de carga para PartService y VehicleService contra repositorios reales.
+ *
+ * Varios hilos lanzan una mezcla configurable de removeStock, reserveVehicle y consultas
+ * sobre las piezas y vehículos que haya en los repositorios al empezar. Al terminar informa del
+ * rendimiento y de los percentiles de latencia por operación, y comprueba los invariantes:
+ * - ninguna pieza con stock negativo,
+ * - ningún vehículo reservado dos veces (y el dueño final es el de la única reserva aceptada),
+ * - la suma de stock final es la inicial menos las retiradas aceptadas.
+ */
+public class LoadSimulator {
+
+    public enum Operation { REMOVE_STOCK, RESERVE_VEHICLE, LOOKUP }
+
+    /**
+     * Pesos relativos de cada operación y cantidad máxima a retirar en cada removeStock.
+     */
+    public record Mix(int removeStockWeight, int reserveWeight, int lookupWeight, int maxQuantity) {
+        public Mix {
+            if (removeStockWeight < 0 || reserveWeight < 0 || lookupWeight < 0
+                    || removeStockWeight + reserveWeight + lookupWeight == 0) {
+                throw new IllegalArgumentException("Los pesos deben ser positivos y no todos cero.");
+            }
+            if (maxQuantity <= 0) {
+                throw new IllegalArgumentException("La cantidad máxima debe ser mayor que cero.");
+            }
+        }
+
+        int total() {
+            return removeStockWeight + reserveWeight + lookupWeight;
+        }
+    }
+
+    /**
+     * Latencias de una operación, en nanosegundos.
+     */
+    public record LatencyStats(long count, long p50, long p90, long p99, long p999, long max) {
+
+        static LatencyStats of(long[] samples) {
+            if (samples.length == 0) {
+                return new LatencyStats(0, 0, 0, 0, 0, 0);
+            }
+            Arrays.sort(samples);
+            return new LatencyStats(samples.length, percentile(samples, 0.50), percentile(samples, 0.90),
+                percentile(samples, 0.99), percentile(samples, 0.999), samples[samples.length - 1]);
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+
+    /**
+     * Resultado de una ejecución.
+     * @param rejected Operaciones rechazadas por reglas de negocio (stock insuficiente, vehículo no disponible)
+     * @param errors Excepciones inesperadas; cualquiera se considera una violación
+     */
+    public record Report(int threads, long operations, long elapsedNanos, Map<Operation, LatencyStats> latencies,
+                         long rejected, long errors, List<String> violations) {
+
+        public double throughput() {
+            return elapsedNanos == 0 ? 0.0 : operations * 1e9 / elapsedNanos;
+        }
+
+        public boolean isConsistent() {
+            return violations.isEmpty();
+        }
+
+        /**
+         * Lanza IllegalStateException con todas las violaciones si hay alguna.
+         */
+        public void assertInvariants() {
+            if (!violations.isEmpty()) {
+                throw new IllegalStateException("Invariantes incumplidos: " + String.join("; ", violations));
+            }
+        }
+
+        public String summary() {
+            StringBuilder text = new StringBuilder(String.format(
+                "%d hilos, %d operaciones en %d ms (%.0f op/s), %d rechazadas, %d errores",
+                threads, operations, elapsedNanos / 1_000_000, throughput(), rejected, errors));
+            latencies.forEach((operation, stats) -> text.append(String.format(
+                "%n  %-15s n=%d p50=%dµs p90=%dµs p99=%dµs p99.9=%dµs max=%dµs", operation, stats.count(),
+                stats.p50() / 1_000, stats.p90() / 1_000, stats.p99() / 1_000, stats.p999() / 1_000,
+                stats.max() / 1_000)));
+            return text.toString();
+        }
+    }
+
+    private final PartRepository partRepository;
+    private final VehicleRepository vehicleRepository;
+    private final PartService partService;
+    private final VehicleService vehicleService;
+
+    // Estado de la última ejecución, para poder volver a comprobar los invariantes
+    private volatile long initialStock;
+    private final LongAdder removedUnits = new LongAdder();
+    private final Map<String, List<String>> acceptedReservations = new ConcurrentHashMap<>();
+
+    public LoadSimulator(PartRepository partRepository, VehicleRepository vehicleRepository) {
+        this.partRepository = partRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.partService = new PartService(partRepository);
+        this.vehicleService = new VehicleService(vehicleRepository);
+    }
+
+    /**
+     * Ejecuta {@code operationsPerThread} operaciones en cada uno de los {@code threads} hilos.
+     * Todos los hilos arrancan a la vez; la semilla hace repetible la secuencia de cada hilo.
+     */
+    public Report run(int threads, int operationsPerThread, Mix mix, long seed) {
+        if (threads <= 0 || operationsPerThread <= 0) {
+            throw new IllegalArgumentException("Hilos y operaciones deben ser mayores que cero.");
+        }
+        List<String> partNumbers = new ArrayList<>();
+        long stock = 0;
+        for (Part part : partRepository.findAll()) {
+            partNumbers.add(part.getPartNumber());
+            stock += part.getQuantityInStock();
+        }
+        List<String> vins = new ArrayList<>();
+        for (Vehicle vehicle : vehicleRepository.findAll()) {
+            vins.add(vehicle.getVin());
+        }
+        if (partNumbers.isEmpty() || vins.isEmpty()) {
+            throw new IllegalStateException("Los repositorios deben tener piezas y vehículos antes de la simulación.");
+        }
+        initialStock = stock;
+        removedUnits.reset();
+        acceptedReservations.clear();
+
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+        List<String> errorSamples = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Worker>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Worker worker = new Worker(new SplittableRandom(seed + t), operationsPerThread, mix, partNumbers, vins,
+                "CLIENTE-" + t, rejected, errors, errorSamples);
+            futures.add(executor.submit(() -> {
+                start.await();
+                worker.run();
+                return worker;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        List<Worker> workers = new ArrayList<>();
+        try {
+            for (Future<Worker> future : futures) {
+                workers.add(future.get());
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("La simulación no terminó correctamente", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        Map<Operation, LatencyStats> latencies = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, LatencyStats.of(mergeSamples(workers, operation)));
+        }
+        List<String> violations = checkInvariants();
+        if (errors.sum() > 0) {
+            synchronized (errorSamples) {
+                violations.add(errors.sum() + " errores inesperados, p. ej.: " + errorSamples);
+            }
+        }
+        return new Report(threads, (long) threads * operationsPerThread, elapsed, latencies,
+            rejected.sum(), errors.sum(), violations);
+    }
+
+    /**
+     * Comprueba los invariantes sobre el estado actual de los repositorios y lo registrado
+     * en la última ejecución. Devuelve la lista de violaciones (vacía si todo cuadra).
+     */
+    public List<String> checkInvariants() {
+        List<String> violations = new ArrayList<>();
+        long stock = 0;
+        for (Part part : partRepository.findAll()) {
+            if (part.getQuantityInStock() < 0) {
+                violations.add("Stock negativo en " + part.getPartNumber() + ": " + part.getQuantityInStock());
+            }
+            stock += part.getQuantityInStock();
+        }
+        long expected = initialStock - removedUnits.sum();
+        if (stock != expected) {
+            violations.add("La suma de stock es " + stock + " y debería ser " + expected
+                + " (inicial " + initialStock + " menos " + removedUnits.sum() + " retiradas)");
+        }
+        for (Map.Entry<String, List<String>> entry : acceptedReservations.entrySet()) {
+            List<String> owners = entry.getValue();
+            if (owners.size() > 1) {
+                violations.add("Vehículo " + entry.getKey() + " reservado " + owners.size() + " veces: " + owners);
+                continue;
+            }
+            Vehicle vehicle = vehicleRepository.findByVin(entry.getKey());
+            if (vehicle.getStatus() != Vehicle.VehicleStatus.RESERVED || !owners.get(0).equals(vehicle.getOwnerId())) {
+                violations.add("Vehículo " + entry.getKey() + " en estado " + vehicle.getStatus()
+                    + " con dueño " + vehicle.getOwnerId() + ", pero la reserva aceptada fue de " + owners.get(0));
+            }
+        }
+        return violations;
+    }
+
+    public PartService getPartService() { return partService; }
+    public VehicleService getVehicleService() { return vehicleService; }
+
+    // Une las latencias de todos los hilos para una operación
+    private static long[] mergeSamples(List<Worker> workers, Operation operation) {
+        int total = 0;
+        for (Worker worker : workers) {
+            total += worker.counts[operation.ordinal()];
+        }
+        long[] merged = new long[total];
+        int position = 0;
+        for (Worker worker : workers) {
+            int count = worker.counts[operation.ordinal()];
+            System.arraycopy(worker.samples[operation.ordinal()], 0, merged, position, count);
+            position += count;
+        }
+        return merged;
+    }
+
+    /**
+     * Hilo de carga: guarda sus propias latencias para no compartir estructuras durante la medición.
+     */
+    private final class Worker {
+
+        private final SplittableRandom random;
+        private final int operations;
+        private final Mix mix;
+        private final List<String> partNumbers;
+        private final List<String> vins;
+        private final String ownerId;
+        private final LongAdder rejected;
+        private final LongAdder errors;
+        private final List<String> errorSamples;
+        private final long[][] samples = new long[Operation.values().length][];
+        private final int[] counts = new int[Operation.values().length];
+
+        Worker(SplittableRandom random, int operations, Mix mix, List<String> partNumbers, List<String> vins,
+               String ownerId, LongAdder rejected, LongAdder errors, List<String> errorSamples) {
+            this.random = random;
+            this.operations = operations;
+            this.mix = mix;
+            this.partNumbers = partNumbers;
+            this.vins = vins;
+            this.ownerId = ownerId;
+            this.rejected = rejected;
+            this.errors = errors;
+            this.errorSamples = errorSamples;
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = new long[operations];
+            }
+        }
+
+        void run() {
+            for (int i = 0; i < operations; i++) {
+                int roll = random.nextInt(mix.total());
+                Operation operation = roll < mix.removeStockWeight() ? Operation.REMOVE_STOCK
+                    : roll < mix.removeStockWeight() + mix.reserveWeight() ? Operation.RESERVE_VEHICLE
+                    : Operation.LOOKUP;
+                long begin = System.nanoTime();
+                try {
+                    execute(operation);
+                } catch (IllegalArgumentException e) {
+                    // Regla de negocio: stock insuficiente o vehículo no disponible
+                    rejected.increment();
+                } catch (RuntimeException e) {
+                    errors.increment();
+                    synchronized (errorSamples) {
+                        if (errorSamples.size() < 5) {
+                            errorSamples.add(e.toString());
+                        }
+                    }
+                }
+                samples[operation.ordinal()][counts[operation.ordinal()]++] = System.nanoTime() - begin;
+            }
+        }
+
+        private void execute(Operation operation) {
+            switch (operation) {
+                case REMOVE_STOCK -> {
+                    int quantity = 1 + random.nextInt(mix.maxQuantity());
+                    partService.removeStock(partNumbers.get(random.nextInt(partNumbers.size())), quantity);
+                    removedUnits.add(quantity);
+                }
+                case RESERVE_VEHICLE -> {
+                    String vin = vins.get(random.nextInt(vins.size()));
+                    vehicleService.reserveVehicle(vin, ownerId);
+                    acceptedReservations.compute(vin, (key, owners) -> {
+                        List<String> updated = owners == null ? new ArrayList<>() : owners;
+                        updated.add(ownerId);
+                        return updated;
+                    });
+                }
+                case LOOKUP -> {
+                    if (random.nextBoolean()) {
+                        partRepository.findByPartNumber(partNumbers.get(random.nextInt(partNumbers.size())));
+                    } else {
+                        vehicleRepository.findByVin(vins.get(random.nextInt(vins.size())));
+                    }
+                }
+            }
+        }
+    }
+}
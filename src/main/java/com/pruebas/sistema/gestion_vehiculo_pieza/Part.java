@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Part {
 
@@ -20,6 +21,8 @@ public class Part {
     private List<String> compatibleVehicles;
     private final LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Observadores de cambios (null hasta la primera suscripción para no gastar memoria)
+    private volatile CopyOnWriteArrayList<PartChangeListener> listeners;
 
     // Constante para el token de guardia
     private static final String FACTORY_AUTHORIZED = "FACTORY_AUTHORIZED";
@@ -30,7 +33,7 @@ public class Part {
     private Part(String partNumber, String name, int quantityInStock, double unitPrice, 
                  String location, int lowStockThreshold, String description, 
                  String sourceVehicleVin, String supplierId, List<String> compatibleVehicles, 
-                 String guardToken) {
+                 LocalDateTime createdAt, LocalDateTime updatedAt, String guardToken) {
         
         // Simulación del permiso de Python
         if (!FACTORY_AUTHORIZED.equals(guardToken)) {
@@ -54,8 +57,8 @@ public class Part {
         this.supplierId = supplierId;           // Será null o un ID
         
         this.compatibleVehicles = (compatibleVehicles != null) ? compatibleVehicles : new ArrayList<>();
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.createdAt = (createdAt != null) ? createdAt : LocalDateTime.now();
+        this.updatedAt = (updatedAt != null) ? updatedAt : LocalDateTime.now();
     }
 
     // --- Métodos de Fábrica Estáticos ---
@@ -71,7 +74,7 @@ public class Part {
         
         // El sourceVehicleVin es nulo y pasamos el token
         return new Part(partNumber, name, quantityInStock, unitPrice, location, lowStockThreshold, 
-                        description, null, supplierId, null, FACTORY_AUTHORIZED);
+                        description, null, supplierId, null, null, null, FACTORY_AUTHORIZED);
     }
 
     /**
@@ -85,22 +88,45 @@ public class Part {
 
         // El supplierId es nulo y pasamos el token
         return new Part(partNumber, name, quantityInStock, unitPrice, location, lowStockThreshold, 
-                        description, sourceVehicleVin, null, null, FACTORY_AUTHORIZED);
+                        description, sourceVehicleVin, null, null, null, null, FACTORY_AUTHORIZED);
+    }
+
+    /**
+     * Fábrica interna para reconstruir una pieza ya persistida (por ejemplo, desde JDBC).
+     * No aplica las validaciones de alta: los datos ya fueron validados al crearse.
+     * La lista de vehículos compatibles puede ser una {@link LazyList} que se carga al primer acceso.
+     */
+    static Part restore(String partNumber, String name, int quantityInStock, double unitPrice,
+                        String location, int lowStockThreshold, String description,
+                        String sourceVehicleVin, String supplierId, List<String> compatibleVehicles,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new Part(partNumber, name, quantityInStock, unitPrice, location, lowStockThreshold,
+                        description, sourceVehicleVin, supplierId, compatibleVehicles,
+                        createdAt, updatedAt, FACTORY_AUTHORIZED);
     }
     
     // --- Lógica de Negocio ---
 
     /**
      * Metodo para agregar o restar la cantidad de pieza en stock.
+     * La comprobación y la resta son atómicas frente a otros hilos; los observadores se avisan
+     * después de soltar el monitor para que uno lento no bloquee a quien lea o modifique la pieza.
      */
     public void updateStock(int cantidad) {
-        if (this.quantityInStock + cantidad < 0) {
-            throw new IllegalArgumentException(
-                String.format("No se puede restar %d. Solo hay %d en stock.", Math.abs(cantidad), this.quantityInStock)
-            );
+        int previous;
+        int current;
+        synchronized (this) {
+            if (this.quantityInStock + cantidad < 0) {
+                throw new IllegalArgumentException(
+                    String.format("No se puede restar %d. Solo hay %d en stock.", Math.abs(cantidad), this.quantityInStock)
+                );
+            }
+            previous = this.quantityInStock;
+            this.quantityInStock += cantidad;
+            this.updatedAt = LocalDateTime.now();
+            current = this.quantityInStock;
         }
-        this.quantityInStock += cantidad;
-        this.updatedAt = LocalDateTime.now();
+        notifyChange(PartChangeListener.Field.STOCK, previous, current);
     }
 
     /**
@@ -126,6 +152,7 @@ public class Part {
     public void addCompatibleVehicle(String vehicleVin) {
         if (!this.compatibleVehicles.contains(vehicleVin)) {
             this.compatibleVehicles.add(vehicleVin);
+            notifyChange(PartChangeListener.Field.COMPATIBLE_VEHICLES, Double.NaN, Double.NaN);
         }
     }
 
@@ -136,6 +163,44 @@ public class Part {
         return this.compatibleVehicles.contains(vehicleVin);
     }
 
+    // --- Observadores ---
+
+    /**
+     * Metodo para suscribir un observador a los cambios de la pieza (se ignora si ya estaba).
+     */
+    public void addChangeListener(PartChangeListener listener) {
+        CopyOnWriteArrayList<PartChangeListener> current = listeners;
+        if (current == null) {
+            synchronized (this) {
+                current = listeners;
+                if (current == null) {
+                    current = new CopyOnWriteArrayList<>();
+                    listeners = current;
+                }
+            }
+        }
+        current.addIfAbsent(listener);
+    }
+
+    /**
+     * Metodo para dar de baja un observador.
+     */
+    public void removeChangeListener(PartChangeListener listener) {
+        CopyOnWriteArrayList<PartChangeListener> current = listeners;
+        if (current != null) {
+            current.remove(listener);
+        }
+    }
+
+    private void notifyChange(PartChangeListener.Field field, double oldValue, double newValue) {
+        CopyOnWriteArrayList<PartChangeListener> current = listeners;
+        if (current != null) {
+            for (PartChangeListener listener : current) {
+                listener.onPartChanged(this, field, oldValue, newValue);
+            }
+        }
+    }
+
     // --- Getters  ---
 
     public String getPartNumber() { return partNumber; }
@@ -151,12 +216,31 @@ public class Part {
     public String getSourceVehicleVin() { return sourceVehicleVin; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
+    // Indica si la lista de compatibles ya está en memoria (false si es perezosa y nunca se leyó)
+    boolean isCompatibleVehiclesLoaded() { return LazyList.isLoaded(compatibleVehicles); }
 
     // --- Setters (Simulan @setter de Python) ---
 
-    public void setName(String name) { this.name = name; }
-    public void setUnitPrice(double unitPrice) { this.unitPrice = unitPrice; }
-    public void setLocation(String location) { this.location = location; }
-    public void setDescription(String description) { this.description = description; }
-    public void setLowStockThreshold(int lowStockThreshold) { this.lowStockThreshold = lowStockThreshold; }
+    public void setName(String name) {
+        this.name = name;
+        notifyChange(PartChangeListener.Field.NAME, Double.NaN, Double.NaN);
+    }
+    public void setUnitPrice(double unitPrice) {
+        double previous = this.unitPrice;
+        this.unitPrice = unitPrice;
+        notifyChange(PartChangeListener.Field.UNIT_PRICE, previous, unitPrice);
+    }
+    public void setLocation(String location) {
+        this.location = location;
+        notifyChange(PartChangeListener.Field.LOCATION, Double.NaN, Double.NaN);
+    }
+    public void setDescription(String description) {
+        this.description = description;
+        notifyChange(PartChangeListener.Field.DESCRIPTION, Double.NaN, Double.NaN);
+    }
+    public void setLowStockThreshold(int lowStockThreshold) {
+        int previous = this.lowStockThreshold;
+        this.lowStockThreshold = lowStockThreshold;
+        notifyChange(PartChangeListener.Field.LOW_STOCK_THRESHOLD, previous, lowStockThreshold);
+    }
 }
\ No newline at end of file
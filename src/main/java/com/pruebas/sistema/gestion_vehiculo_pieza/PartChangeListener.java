@@ -0,0 +1,18 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+/**
+ * Observador de los cambios de una Part.
+ * Se registra con {@link Part#addChangeListener(PartChangeListener)} y recibe
+ * el aviso después de que el cambio se haya aplicado.
+ * Los campos numéricos (stock, precio, umbral) llevan su valor anterior y el nuevo;
+ * en los de texto ambos valores son NaN y el valor actual se lee de la pieza.
+ */
+public interface PartChangeListener {
+
+    // Campos de Part que pueden cambiar después de la creación
+    enum Field {
+        NAME, DESCRIPTION, STOCK, UNIT_PRICE, LOCATION, LOW_STOCK_THRESHOLD, COMPATIBLE_VEHICLES
+    }
+
+    void onPartChanged(Part part, Field field, double oldValue, double newValue);
+}
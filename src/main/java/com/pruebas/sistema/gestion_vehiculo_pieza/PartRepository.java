@@ -1,4 +1,8 @@
 package com.pruebas.sistema.gestion_vehiculo_pieza;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.stereotype.Repository;
 
 // Anotación clave para que Spring la reconozca como un componente
@@ -9,4 +13,19 @@ public interface PartRepository {
     
     // Simula la operación de guardar (insertar o actualizar)
     Part save(Part part); 
-}
\ No newline at end of file
+
+    // Devuelve todas las piezas almacenadas
+    Collection<Part> findAll();
+
+    // Elimina una pieza; no hace nada si no existe
+    void deleteByPartNumber(String partNumber);
+
+    // Guarda varias piezas; las implementaciones pueden hacerlo en un único lote
+    default List<Part> saveAll(Collection<Part> parts) {
+        List<Part> saved = new ArrayList<>(parts.size());
+        for (Part part : parts) {
+            saved.add(save(part));
+        }
+        return saved;
+    }
+}
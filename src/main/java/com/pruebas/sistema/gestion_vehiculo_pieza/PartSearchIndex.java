@@ -0,0 +1,377 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria sobre el nombre y la descripción de las piezas.
+ * - Normaliza acentos y mayúsculas ("Pastilla de FRENO" == "pastilla freno").
+ * - Admite prefijos ("pasti fre") y errores de tecleo mediante trigramas ("filtor").
+ * - Se actualiza de forma incremental al llamar a setName/setDescription.
+ * Todas las palabras de la consulta deben aparecer (AND); el resultado se ordena por relevancia.
+ */
+public class PartSearchIndex implements PartChangeListener {
+
+    // Máscara de campos donde aparece un término
+    private static final int IN_NAME = 1;
+    private static final int IN_DESCRIPTION = 2;
+
+    private static final double NAME_BOOST = 2.0;
+    private static final double DESCRIPTION_BOOST = 1.0;
+    private static final double PREFIX_WEIGHT = 0.7;
+    private static final double FUZZY_WEIGHT = 0.4;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_EXPANSIONS = 64;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+    private static final Set<String> STOPWORDS = Set.of(
+        "de", "del", "la", "el", "los", "las", "y", "o", "para", "con", "sin", "en", "a", "al", "un", "una", "por");
+
+    // partNumber -> documento indexado (pieza y términos con su máscara de campos)
+    private final ConcurrentHashMap<String, Doc> docs = new ConcurrentHashMap<>();
+    // término -> (partNumber -> máscara de campos)
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> postings = new ConcurrentHashMap<>();
+    // Diccionario ordenado para resolver prefijos por rango
+    private final ConcurrentSkipListSet<String> dictionary = new ConcurrentSkipListSet<>();
+    // trigrama -> términos del diccionario que lo contienen
+    private final ConcurrentHashMap<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+
+    /**
+     * Resultado de una búsqueda.
+     */
+    public record Hit(Part part, double score) { }
+
+    private record Doc(Part part, Map<String, Integer> terms) { }
+
+    /**
+     * Metodo para indexar (o reindexar) una pieza y suscribirse a sus cambios de texto.
+     */
+    public void index(Part part) {
+        reindex(part);
+        part.addChangeListener(this);
+    }
+
+    /**
+     * Metodo para quitar una pieza del índice.
+     */
+    public void remove(String partNumber) {
+        docs.computeIfPresent(partNumber, (key, old) -> {
+            for (String term : old.terms().keySet()) {
+                removePosting(term, key);
+            }
+            old.part().removeChangeListener(this);
+            return null;
+        });
+    }
+
+    @Override
+    public void onPartChanged(Part part, Field field, double oldValue, double newValue) {
+        if (field == Field.NAME || field == Field.DESCRIPTION) {
+            reindex(part);
+        }
+    }
+
+    public int size() {
+        return docs.size();
+    }
+
+    /**
+     * Busca piezas cuyo nombre o descripción contengan todas las palabras de la consulta.
+     * Cada palabra se expande como mucho a 64 términos del diccionario: si un prefijo corto abarca
+     * más, se usan los que aparecen en más piezas y las piezas que sólo tienen los demás no salen.
+     * @param query Texto libre, p. ej. "filtro aceite"
+     * @param limit Máximo de resultados
+     * @param onlyInStock Si es true, descarta las piezas sin existencias
+     */
+    public List<Hit> search(String query, int limit, boolean onlyInStock) {
+        List<String> queryTerms = new ArrayList<>(tokenize(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // 1. Expandir cada palabra a términos del diccionario (exacto, prefijo, aproximado)
+        List<Map<String, Double>> expansions = new ArrayList<>(queryTerms.size());
+        List<Integer> estimated = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            Map<String, Double> expansion = expand(term);
+            if (expansion.isEmpty()) {
+                return Collections.emptyList();
+            }
+            int size = 0;
+            for (String candidate : expansion.keySet()) {
+                size += postingSize(candidate);
+            }
+            expansions.add(expansion);
+            estimated.add(size);
+        }
+
+        // 2. Empezar por la palabra más selectiva y filtrar con las demás
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < expansions.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(estimated::get));
+
+        double totalDocs = Math.max(1, docs.size());
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, Double> first = expansions.get(order.get(0));
+        for (Map.Entry<String, Double> entry : first.entrySet()) {
+            Map<String, Integer> posting = postings.get(entry.getKey());
+            if (posting == null) {
+                continue;
+            }
+            double weight = entry.getValue() * idf(posting.size(), totalDocs);
+            for (Map.Entry<String, Integer> hit : posting.entrySet()) {
+                scores.merge(hit.getKey(), weight * boost(hit.getValue()), Math::max);
+            }
+        }
+        for (int i = 1; i < order.size() && !scores.isEmpty(); i++) {
+            Map<String, Double> expansion = expansions.get(order.get(i));
+            scores.entrySet().removeIf(candidate -> {
+                double best = bestContribution(expansion, candidate.getKey(), totalDocs);
+                if (best <= 0) {
+                    return true;
+                }
+                candidate.setValue(candidate.getValue() + best);
+                return false;
+            });
+        }
+
+        // 3. Quedarse con los mejores resultados
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score)
+            .thenComparing(hit -> hit.part().getPartNumber(), Comparator.reverseOrder());
+        PriorityQueue<Hit> top = new PriorityQueue<>(ranking);
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            Doc doc = docs.get(entry.getKey());
+            if (doc == null || (onlyInStock && doc.part().getQuantityInStock() <= 0)) {
+                continue;
+            }
+            top.add(new Hit(doc.part(), entry.getValue()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Hit> result = new ArrayList<>(top);
+        result.sort(ranking.reversed());
+        return result;
+    }
+
+    // --- Indexación ---
+
+    private void reindex(Part part) {
+        // compute serializa las actualizaciones de una misma pieza; sólo se aplica la diferencia.
+        // El texto se lee dentro: si dos setName se cruzan, el último compute ve el último nombre
+        docs.compute(part.getPartNumber(), (key, old) -> {
+            Map<String, Integer> terms = new HashMap<>();
+            for (String term : tokenize(part.getName())) {
+                terms.merge(term, IN_NAME, (a, b) -> a | b);
+            }
+            for (String term : tokenize(part.getDescription())) {
+                terms.merge(term, IN_DESCRIPTION, (a, b) -> a | b);
+            }
+            Map<String, Integer> previous = (old != null) ? old.terms() : Collections.emptyMap();
+            for (String term : previous.keySet()) {
+                if (!terms.containsKey(term)) {
+                    removePosting(term, key);
+                }
+            }
+            for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+                if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                    addPosting(entry.getKey(), key, entry.getValue());
+                }
+            }
+            return new Doc(part, terms);
+        });
+    }
+
+    private void addPosting(String term, String partNumber, int mask) {
+        postings.compute(term, (key, posting) -> {
+            if (posting == null) {
+                posting = new ConcurrentHashMap<>();
+                dictionary.add(key);
+                for (String gram : trigramsOf(key)) {
+                    trigrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+                }
+            }
+            posting.put(partNumber, mask);
+            return posting;
+        });
+    }
+
+    private void removePosting(String term, String partNumber) {
+        postings.computeIfPresent(term, (key, posting) -> {
+            posting.remove(partNumber);
+            if (!posting.isEmpty()) {
+                return posting;
+            }
+            dictionary.remove(key);
+            for (String gram : trigramsOf(key)) {
+                trigrams.computeIfPresent(gram, (g, set) -> {
+                    set.remove(key);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+            return null;
+        });
+    }
+
+    // --- Consulta ---
+
+    private Map<String, Double> expand(String term) {
+        Map<String, Double> expansion = new LinkedHashMap<>();
+        if (postings.containsKey(term)) {
+            expansion.put(term, 1.0);
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            // Si hay más prefijos que el máximo, se quedan los que aparecen en más piezas
+            Comparator<String> byFrequency = Comparator.comparingInt(this::postingSize)
+                .thenComparing(Comparator.<String>reverseOrder());
+            PriorityQueue<String> mostFrequent = new PriorityQueue<>(byFrequency);
+            for (String candidate : dictionary.subSet(term, false, term + Character.MAX_VALUE, false)) {
+                mostFrequent.add(candidate);
+                if (mostFrequent.size() > MAX_EXPANSIONS - expansion.size()) {
+                    mostFrequent.poll();
+                }
+            }
+            List<String> selected = new ArrayList<>(mostFrequent);
+            selected.sort(byFrequency.reversed());
+            for (String candidate : selected) {
+                expansion.put(candidate, PREFIX_WEIGHT);
+            }
+        }
+        if (expansion.isEmpty() && term.length() >= MIN_FUZZY_LENGTH) {
+            for (String candidate : fuzzyCandidates(term)) {
+                expansion.put(candidate, FUZZY_WEIGHT);
+            }
+        }
+        return expansion;
+    }
+
+    // Términos a distancia de edición corta, filtrados primero por trigramas compartidos
+    private List<String> fuzzyCandidates(String term) {
+        int maxEdits = term.length() <= 6 ? 1 : 2;
+        Set<String> grams = trigramsOf(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> terms = trigrams.get(gram);
+            if (terms != null) {
+                for (String candidate : terms) {
+                    shared.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            String candidate = entry.getKey();
+            if (entry.getValue() >= minShared
+                    && Math.abs(candidate.length() - term.length()) <= maxEdits
+                    && editDistance(term, candidate, maxEdits) <= maxEdits) {
+                result.add(candidate);
+                if (result.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private double bestContribution(Map<String, Double> expansion, String partNumber, double totalDocs) {
+        double best = 0;
+        for (Map.Entry<String, Double> entry : expansion.entrySet()) {
+            Map<String, Integer> posting = postings.get(entry.getKey());
+            Integer mask = (posting != null) ? posting.get(partNumber) : null;
+            if (mask != null) {
+                best = Math.max(best, entry.getValue() * idf(posting.size(), totalDocs) * boost(mask));
+            }
+        }
+        return best;
+    }
+
+    private int postingSize(String term) {
+        Map<String, Integer> posting = postings.get(term);
+        return (posting != null) ? posting.size() : 0;
+    }
+
+    private static double idf(int documentFrequency, double totalDocs) {
+        return Math.log(1 + totalDocs / Math.max(1, documentFrequency));
+    }
+
+    private static double boost(int mask) {
+        return (mask & IN_NAME) != 0 ? NAME_BOOST : DESCRIPTION_BOOST;
+    }
+
+    // --- Utilidades de texto ---
+
+    /**
+     * Pasa a minúsculas, quita acentos y divide en palabras, descartando las vacías.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String token : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty() && !STOPWORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    private static Set<String> trigramsOf(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Distancia de Damerau-Levenshtein (transposiciones incluidas), cortando al superar el máximo
+    private static int editDistance(String a, String b, int max) {
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return rowMin;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return prev[b.length()];
+    }
+}
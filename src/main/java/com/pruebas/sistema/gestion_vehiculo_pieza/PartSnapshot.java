@@ -0,0 +1,24 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+/**
+ * Copia inmutable de una pieza en una versión concreta, para informes.
+ */
+public record PartSnapshot(String partNumber, String name, int quantityInStock, double unitPrice,
+                           String location, int lowStockThreshold, String supplierId) {
+
+    // Se copia bajo el monitor de la pieza para no mezclar un stock a medio actualizar
+    static PartSnapshot of(Part part) {
+        synchronized (part) {
+            return new PartSnapshot(part.getPartNumber(), part.getName(), part.getQuantityInStock(),
+                part.getUnitPrice(), part.getLocation(), part.getLowStockThreshold(), part.getSupplierId());
+        }
+    }
+
+    public double calculateTotalValue() {
+        return this.quantityInStock * this.unitPrice;
+    }
+
+    public boolean isLowStock() {
+        return this.lowStockThreshold > 0 && this.quantityInStock <= this.lowStockThreshold;
+    }
+}
@@ -0,0 +1,292 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Almacén local de fotos direccionado por contenido, enlazado con {@link Vehicle#getPhotos()}.
+ *
+ * - Cada foto se guarda una sola vez con el SHA-256 de su contenido como nombre (deduplicación):
+ *   {@code blobs/ab/abcdef...}. En el vehículo se anota la URL {@code photo://<sha256>}.
+ * - Los originales se sirven sin pasar por el heap: {@link #transferTo} usa FileChannel.transferTo
+ *   y {@link #map} devuelve el fichero proyectado en memoria.
+ * - Las miniaturas se generan en segundo plano con ImageIO al guardar la foto, se escriben en
+ *   {@code thumbs/} y se mantienen en una caché LRU limitada por bytes. Un listado sólo lee miniaturas:
+ *   nunca vuelve a leer ni a decodificar el original.
+ */
+public class PhotoStore {
+
+    public static final String URL_PREFIX = "photo://";
+
+    private final Path blobs;
+    private final Path thumbs;
+    private final int thumbnailSize;
+    private final Executor executor;
+    private final ThumbnailCache cache;
+    // Miniaturas en generación: quien las pida mientras tanto espera a la misma tarea
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    /**
+     * @param root Carpeta raíz del almacén
+     * @param thumbnailSize Lado mayor de las miniaturas, en píxeles
+     * @param cacheBytes Bytes máximos de miniaturas en memoria
+     * @param executor Hilos para generar miniaturas
+     */
+    public PhotoStore(Path root, int thumbnailSize, long cacheBytes, Executor executor) {
+        if (thumbnailSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de miniatura debe ser mayor que cero.");
+        }
+        this.blobs = root.resolve("blobs");
+        this.thumbs = root.resolve("thumbs");
+        try {
+            Files.createDirectories(blobs);
+            Files.createDirectories(thumbs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear el almacén de fotos en " + root, e);
+        }
+        this.thumbnailSize = thumbnailSize;
+        this.cache = new ThumbnailCache(cacheBytes);
+        this.executor = executor;
+    }
+
+    public PhotoStore(Path root) {
+        this(root, 240, 32L * 1024 * 1024, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Guarda la foto (si no existía ya) y la añade al vehículo. Devuelve la URL anotada.
+     */
+    public String addPhoto(Vehicle vehicle, InputStream content) {
+        String url = URL_PREFIX + store(content);
+        vehicle.addPhotoIfAbsent(url);
+        return url;
+    }
+
+    /**
+     * Guarda el contenido (consume y cierra el flujo) y devuelve su hash. El fichero se escribe aparte
+     * y se mueve de forma atómica, así que un lector nunca ve un blob a medias.
+     * Lanza en segundo plano la generación de la miniatura.
+     */
+    public String store(InputStream content) {
+        try {
+            Path temp = Files.createTempFile(blobs, "upload-", ".tmp");
+            String hash;
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                try (InputStream in = new DigestInputStream(content, digest)) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                hash = HexFormat.of().formatHex(digest.digest());
+                Path blob = blobPath(hash);
+                Files.createDirectories(blob.getParent());
+                if (Files.exists(blob)) {
+                    deduplicated.increment();
+                } else {
+                    moveIntoPlace(temp, blob);
+                    stored.increment();
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            if (!cache.contains(hash)) {
+                generateAsync(hash);
+            }
+            return hash;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la foto", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Envía el original al canal de destino sin copiarlo al heap (transferTo del sistema operativo).
+     * Devuelve los bytes enviados.
+     */
+    public long transferTo(String photo, WritableByteChannel target) {
+        try (FileChannel channel = FileChannel.open(existingBlob(photo), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            // transferTo puede enviar menos de lo pedido: se repite hasta el final
+            while (position < size) {
+                long sent = channel.transferTo(position, size - position, target);
+                if (sent == 0) {
+                    // Sin avance (fichero recortado o destino que no acepta más): copia por flujo hasta el final
+                    return position + Channels.newInputStream(channel.position(position))
+                        .transferTo(Channels.newOutputStream(target));
+                }
+                position += sent;
+            }
+            return size;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo enviar la foto " + photo, e);
+        }
+    }
+
+    /**
+     * Proyecta el original en memoria en modo sólo lectura.
+     */
+    public MappedByteBuffer map(String photo) {
+        try (FileChannel channel = FileChannel.open(existingBlob(photo), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo proyectar la foto " + photo, e);
+        }
+    }
+
+    /**
+     * Miniatura JPEG de la foto (acepta el hash o la URL photo://).
+     * Orden de búsqueda: caché en memoria, fichero de miniatura y, sólo si falta, el original.
+     * Si el original no es una imagen, el futuro termina con IllegalArgumentException.
+     */
+    public CompletableFuture<byte[]> thumbnail(String photo) {
+        String hash = hashOf(photo);
+        byte[] cached = cache.get(hash);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return generateAsync(hash);
+    }
+
+    private CompletableFuture<byte[]> generateAsync(String hash) {
+        CompletableFuture<byte[]> task = pending.computeIfAbsent(hash,
+            key -> CompletableFuture.supplyAsync(() -> loadOrGenerate(key), executor));
+        task.whenComplete((bytes, error) -> pending.remove(hash, task));
+        return task;
+    }
+
+    /**
+     * Miniaturas de todas las fotos del almacén anotadas en el vehículo, en su orden.
+     * Las URL externas (no photo://) se ignoran.
+     */
+    public List<CompletableFuture<byte[]>> listingThumbnails(Vehicle vehicle) {
+        List<CompletableFuture<byte[]>> result = new ArrayList<>();
+        for (String url : vehicle.getPhotos()) {
+            if (url.startsWith(URL_PREFIX)) {
+                result.add(thumbnail(url));
+            }
+        }
+        return result;
+    }
+
+    public boolean contains(String photo) {
+        return Files.exists(blobPath(hashOf(photo)));
+    }
+
+    public long getStoredCount() { return stored.sum(); }
+    public long getDeduplicatedCount() { return deduplicated.sum(); }
+    public long getCacheHits() { return cache.getHits(); }
+    public long getCacheMisses() { return cache.getMisses(); }
+    public long getCacheBytes() { return cache.getUsedBytes(); }
+    public long getCacheEvictions() { return cache.getEvictions(); }
+
+    private byte[] loadOrGenerate(String hash) {
+        Path thumb = thumbs.resolve(hash + ".jpg");
+        try {
+            byte[] bytes;
+            if (Files.exists(thumb)) {
+                bytes = Files.readAllBytes(thumb);
+            } else {
+                bytes = generate(existingBlob(hash));
+                Path temp = Files.createTempFile(thumbs, "thumb-", ".tmp");
+                Files.write(temp, bytes);
+                moveIntoPlace(temp, thumb);
+                Files.deleteIfExists(temp);
+            }
+            cache.put(hash, bytes);
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo generar la miniatura de " + hash, e);
+        }
+    }
+
+    private byte[] generate(Path original) throws IOException {
+        BufferedImage image;
+        try (InputStream in = Files.newInputStream(original)) {
+            image = ImageIO.read(in);
+        }
+        if (image == null) {
+            throw new IllegalArgumentException("El fichero " + original.getFileName() + " no es una imagen reconocible.");
+        }
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+        // JPEG no admite transparencia: se dibuja sobre RGB
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "jpg", out);
+        return out.toByteArray();
+    }
+
+    // Otro hilo puede haber colocado el mismo contenido antes: en ese caso el nuestro sobra
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(temp);
+        } catch (AtomicMoveNotSupportedException e) {
+            try {
+                Files.move(temp, target);
+            } catch (FileAlreadyExistsException ignored) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private Path existingBlob(String photo) {
+        Path blob = blobPath(hashOf(photo));
+        if (!Files.exists(blob)) {
+            throw new IllegalArgumentException("La foto " + photo + " no está en el almacén.");
+        }
+        return blob;
+    }
+
+    private Path blobPath(String hash) {
+        return blobs.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    // Acepta el hash o la URL; rechaza cualquier cosa que no sea un SHA-256 en hexadecimal
+    private static String hashOf(String photo) {
+        String hash = photo.startsWith(URL_PREFIX) ? photo.substring(URL_PREFIX.length()) : photo;
+        if (hash.length() != 64 || !hash.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Identificador de foto no válido: " + photo);
+        }
+        return hash.toLowerCase();
+    }
+}
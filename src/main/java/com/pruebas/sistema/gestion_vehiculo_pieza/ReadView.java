@@ -0,0 +1,92 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Vista de sólo lectura del inventario tal como estaba en una versión confirmada.
+ * Todas las consultas de la vista ven el mismo instante, sin bloquear a los escritores.
+ */
+public class ReadView implements AutoCloseable {
+
+    private final InventoryVersions versions;
+    private final long version;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    ReadView(InventoryVersions versions, long version) {
+        this.versions = versions;
+        this.version = version;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public PartSnapshot findPart(String partNumber) {
+        checkOpen();
+        return versions.readPart(partNumber, version);
+    }
+
+    public VehicleSnapshot findVehicle(String vin) {
+        checkOpen();
+        return versions.readVehicle(vin, version);
+    }
+
+    /**
+     * Listado de stock ordenado por número de pieza.
+     */
+    public List<PartSnapshot> stockListing() {
+        checkOpen();
+        List<PartSnapshot> listing = new ArrayList<>();
+        versions.parts().forEachVisible(version, listing::add);
+        listing.sort(Comparator.comparing(PartSnapshot::partNumber));
+        return listing;
+    }
+
+    public List<VehicleSnapshot> vehicles() {
+        checkOpen();
+        List<VehicleSnapshot> result = new ArrayList<>();
+        versions.vehicles().forEachVisible(version, result::add);
+        result.sort(Comparator.comparing(VehicleSnapshot::vin));
+        return result;
+    }
+
+    /**
+     * Valoración del inventario: suma de cantidad x precio unitario de todas las piezas.
+     */
+    public double totalStockValue() {
+        checkOpen();
+        double[] total = new double[1];
+        versions.parts().forEachVisible(version, part -> total[0] += part.calculateTotalValue());
+        return total[0];
+    }
+
+    /**
+     * Suma de calculateProfit() de los vehículos en el estado indicado (null = todos).
+     */
+    public double fleetProfit(Vehicle.VehicleStatus status) {
+        checkOpen();
+        double[] total = new double[1];
+        versions.vehicles().forEachVisible(version, vehicle -> {
+            if (status == null || vehicle.status() == status) {
+                total[0] += vehicle.calculateProfit();
+            }
+        });
+        return total[0];
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            versions.release(version);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("La vista de lectura ya está cerrada.");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sustituto de un shard remoto para el modo local de pruebas.
+ * Envuelve un repositorio en memoria y añade latencia de red simulada,
+ * cuenta las llamadas y permite dejar el shard "caído".
+ * Sirve para cualquier interfaz de repositorio (PartRepository o VehicleRepository).
+ */
+public class RemoteShardStub<T> {
+
+    private final T proxy;
+    private final LongAdder calls = new LongAdder();
+    private volatile long latencyMicros;
+    private volatile boolean available = true;
+
+    private RemoteShardStub(Class<T> type, T delegate, long latencyMicros) {
+        this.latencyMicros = latencyMicros;
+        this.proxy = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+            (target, method, args) -> invoke(delegate, method, args)));
+    }
+
+    public static <T> RemoteShardStub<T> wrap(Class<T> type, T delegate, long latency, TimeUnit unit) {
+        return new RemoteShardStub<>(type, delegate, unit.toMicros(latency));
+    }
+
+    private Object invoke(T delegate, Method method, Object[] args) throws Throwable {
+        // equals/hashCode/toString se resuelven localmente: el proxy se usa como clave en mapas
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "RemoteShardStub(" + delegate + ")";
+            }
+        }
+        calls.increment();
+        if (!available) {
+            throw new IllegalStateException("Shard remoto no disponible.");
+        }
+        long latency = latencyMicros;
+        if (latency > 0) {
+            TimeUnit.MICROSECONDS.sleep(latency);
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Repositorio a registrar como shard
+    public T proxy() { return proxy; }
+    public long getCallCount() { return calls.sum(); }
+    public void setLatency(long latency, TimeUnit unit) { this.latencyMicros = unit.toMicros(latency); }
+    public void setAvailable(boolean available) { this.available = available; }
+}
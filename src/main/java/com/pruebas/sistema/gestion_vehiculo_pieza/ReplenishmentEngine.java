@@ -0,0 +1,250 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Motor de reposición: convierte el stock bajo en lotes de compra por proveedor.
+ * - Sólo evalúa las piezas que cambiaron desde la última ejecución (stock, umbral o precio).
+ *   Al cambiar de día también reevalúa las que tienen consumo o propuesta: la ventana se ha desplazado.
+ * - Reparte las piezas pendientes en particiones que se evalúan en paralelo.
+ * - La cantidad a pedir cubre el umbral más el consumo reciente durante {@code coverageDays}.
+ * Las piezas de desarme (con sourceVehicleVin y sin proveedor) nunca se piden.
+ */
+public class ReplenishmentEngine implements PartChangeListener {
+
+    /**
+     * Línea de pedido de una pieza.
+     */
+    public record ReorderLine(String partNumber, String supplierId, int quantity, double unitPrice) {
+        public double subtotal() {
+            return quantity * unitPrice;
+        }
+    }
+
+    /**
+     * Lote de compra para un proveedor.
+     */
+    public record PurchaseBatch(String supplierId, List<ReorderLine> lines) {
+        public double total() {
+            return lines.stream().mapToDouble(ReorderLine::subtotal).sum();
+        }
+
+        public int totalUnits() {
+            return lines.stream().mapToInt(ReorderLine::quantity).sum();
+        }
+    }
+
+    private final Clock clock;
+    private final int consumptionWindowDays;
+    private final int coverageDays;
+    private final int partitions;
+    private final Executor executor;
+
+    // Piezas observadas, por partNumber
+    private final ConcurrentHashMap<String, Part> tracked = new ConcurrentHashMap<>();
+    // Piezas con cambios pendientes de evaluar
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<String, ConsumptionWindow> consumption = new ConcurrentHashMap<>();
+    // Propuesta vigente por pieza (sólo las que necesitan pedido)
+    private final ConcurrentHashMap<String, ReorderLine> proposals = new ConcurrentHashMap<>();
+    private volatile int lastEvaluatedCount;
+    // Día de la última ejecución; sólo se usa dentro de run()
+    private long lastRunDay = Long.MIN_VALUE;
+
+    public ReplenishmentEngine() {
+        this(Clock.systemDefaultZone(), 30, 14, Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param consumptionWindowDays Días de consumo que se tienen en cuenta para la media diaria
+     * @param coverageDays Días de consumo que debe cubrir cada pedido
+     * @param partitions Número de particiones evaluadas en paralelo
+     */
+    public ReplenishmentEngine(Clock clock, int consumptionWindowDays, int coverageDays, int partitions, Executor executor) {
+        if (consumptionWindowDays <= 0 || coverageDays < 0 || partitions <= 0) {
+            throw new IllegalArgumentException("Parámetros de reposición inválidos.");
+        }
+        this.clock = clock;
+        this.consumptionWindowDays = consumptionWindowDays;
+        this.coverageDays = coverageDays;
+        this.partitions = partitions;
+        this.executor = executor;
+    }
+
+    /**
+     * Metodo para incorporar piezas al inventario observado; se evaluarán en la próxima ejecución.
+     */
+    public void trackAll(Collection<Part> parts) {
+        for (Part part : parts) {
+            track(part);
+        }
+    }
+
+    public void track(Part part) {
+        tracked.put(part.getPartNumber(), part);
+        part.addChangeListener(this);
+        dirty.add(part.getPartNumber());
+    }
+
+    public void untrack(String partNumber) {
+        Part part = tracked.remove(partNumber);
+        if (part != null) {
+            part.removeChangeListener(this);
+        }
+        dirty.remove(partNumber);
+        proposals.remove(partNumber);
+        consumption.remove(partNumber);
+    }
+
+    @Override
+    public void onPartChanged(Part part, Field field, double oldValue, double newValue) {
+        if (field == Field.STOCK && newValue < oldValue) {
+            consumption.computeIfAbsent(part.getPartNumber(), key -> new ConsumptionWindow(consumptionWindowDays))
+                       .record(today(), (long) (oldValue - newValue));
+        }
+        if (field == Field.STOCK || field == Field.LOW_STOCK_THRESHOLD || field == Field.UNIT_PRICE) {
+            dirty.add(part.getPartNumber());
+        }
+    }
+
+    /**
+     * Reevalúa las piezas que cambiaron y devuelve los lotes de compra vigentes, ordenados por proveedor.
+     */
+    public synchronized List<PurchaseBatch> run() {
+        // 1. Tomar las piezas pendientes; los cambios que lleguen durante la ejecución quedan para la siguiente.
+        //    Si ha cambiado el día, el consumo que sale de la ventana altera cantidades sin que la pieza cambie
+        long day = today();
+        if (day != lastRunDay) {
+            dirty.addAll(consumption.keySet());
+            dirty.addAll(proposals.keySet());
+            lastRunDay = day;
+        }
+        List<Part> pending = new ArrayList<>();
+        for (String partNumber : dirty) {
+            if (dirty.remove(partNumber)) {
+                Part part = tracked.get(partNumber);
+                if (part != null) {
+                    pending.add(part);
+                }
+            }
+        }
+
+        // 2. Evaluar cada partición en paralelo
+        int chunk = Math.max(1, (pending.size() + partitions - 1) / partitions);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int from = 0; from < pending.size(); from += chunk) {
+            List<Part> partition = pending.subList(from, Math.min(from + chunk, pending.size()));
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (Part part : partition) {
+                    String partNumber = part.getPartNumber();
+                    ReorderLine line = evaluate(part, day);
+                    if (line == null) {
+                        proposals.remove(partNumber);
+                    } else if (tracked.containsKey(partNumber)) {
+                        proposals.put(partNumber, line);
+                        // Un untrack entre la comprobación y el put no debe dejar la propuesta viva
+                        if (!tracked.containsKey(partNumber)) {
+                            proposals.remove(partNumber, line);
+                        }
+                    }
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        lastEvaluatedCount = pending.size();
+
+        // 3. Agrupar las propuestas vigentes por proveedor
+        Map<String, List<ReorderLine>> bySupplier = new TreeMap<>();
+        for (ReorderLine line : proposals.values()) {
+            bySupplier.computeIfAbsent(line.supplierId(), key -> new ArrayList<>()).add(line);
+        }
+        List<PurchaseBatch> batches = new ArrayList<>(bySupplier.size());
+        for (Map.Entry<String, List<ReorderLine>> entry : bySupplier.entrySet()) {
+            entry.getValue().sort(Comparator.comparing(ReorderLine::partNumber));
+            batches.add(new PurchaseBatch(entry.getKey(), List.copyOf(entry.getValue())));
+        }
+        return batches;
+    }
+
+    /**
+     * Metodo para forzar la reevaluación de todo el inventario observado en la próxima ejecución.
+     */
+    public void markAllDirty() {
+        dirty.addAll(tracked.keySet());
+    }
+
+    /**
+     * Calcula la línea de pedido de una pieza, o null si no necesita reposición.
+     */
+    ReorderLine evaluate(Part part, long day) {
+        if (part.getSupplierId() == null || part.getSourceVehicleVin() != null || !part.isLowStock()) {
+            return null;
+        }
+        int threshold = part.getLowStockThreshold();
+        ConsumptionWindow window = consumption.get(part.getPartNumber());
+        double dailyConsumption = (window != null) ? (double) window.total(day) / consumptionWindowDays : 0;
+        long coverage = (long) Math.ceil(dailyConsumption * coverageDays);
+        long target = threshold + Math.max(threshold, coverage);
+        long quantity = target - part.getQuantityInStock();
+        if (quantity <= 0) {
+            return null;
+        }
+        return new ReorderLine(part.getPartNumber(), part.getSupplierId(),
+                               (int) Math.min(quantity, Integer.MAX_VALUE), part.getUnitPrice());
+    }
+
+    public int getLastEvaluatedCount() { return lastEvaluatedCount; }
+    public int getPendingCount() { return dirty.size(); }
+    public int getTrackedCount() { return tracked.size(); }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    /**
+     * Consumo diario de una pieza en una ventana deslizante de días (un cubo por día).
+     */
+    private static final class ConsumptionWindow {
+
+        private final long[] days;
+        private final long[] units;
+
+        private ConsumptionWindow(int size) {
+            this.days = new long[size];
+            this.units = new long[size];
+            Arrays.fill(days, Long.MIN_VALUE);
+        }
+
+        synchronized void record(long day, long amount) {
+            int slot = (int) Math.floorMod(day, (long) days.length);
+            if (days[slot] != day) {
+                days[slot] = day;
+                units[slot] = 0;
+            }
+            units[slot] += amount;
+        }
+
+        synchronized long total(long today) {
+            long sum = 0;
+            for (int i = 0; i < days.length; i++) {
+                if (days[i] > today - days.length && days[i] <= today) {
+                    sum += units[i];
+                }
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Núcleo común de los repositorios repartidos: enrutado por hashing consistente de la clave,
+ * migración al cambiar la topología y operaciones de varias claves en paralelo (scatter-gather).
+ * Cada repositorio aporta sus {@link Operations} para llegar a la clave y al shard.
+ *
+ * Las operaciones normales no escriben estado compartido: leen el anillo con una lectura optimista
+ * y comprueban al terminar que ningún rebalanceo se ha solapado con ellas. Si se ha solapado, se
+ * repiten con el bloqueo de lectura (ya con la topología nueva) y las escrituras borran la copia
+ * que pudieran haber dejado en el dueño anterior. El rebalanceo toma el bloqueo de escritura.
+ *
+ * @param <T> Entidad guardada
+ * @param <R> Repositorio de cada shard
+ */
+final class ShardRouter<T, R> {
+
+    /**
+     * Acceso a la clave de una entidad y a las operaciones de un shard.
+     */
+    interface Operations<T, R> {
+        String keyOf(T entity);
+        T find(R shard, String key);
+        T save(R shard, T entity);
+        List<T> saveAll(R shard, Collection<T> entities);
+        void delete(R shard, String key);
+        Collection<T> findAll(R shard);
+    }
+
+    private final ConsistentHashRing<R> ring;
+    private final Executor executor;
+    private final Operations<T, R> operations;
+    private final StampedLock topologyLock = new StampedLock();
+
+    ShardRouter(int virtualNodes, Executor executor, Operations<T, R> operations) {
+        this.ring = new ConsistentHashRing<>(virtualNodes);
+        this.executor = executor;
+        this.operations = operations;
+    }
+
+    // --- Topología ---
+
+    /**
+     * Añade un shard y le traslada las entidades que pasan a ser suyas.
+     * @return Número de entidades migradas
+     */
+    int addShard(String name, R shard) {
+        long stamp = topologyLock.writeLock();
+        try {
+            ConsistentHashRing<R> target = ring.withShard(name, shard);
+            int moved = migrate(ring.shards(), target);
+            ring.addShard(name, shard);
+            return moved;
+        } finally {
+            topologyLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Quita un shard repartiendo antes todas sus entidades entre los demás.
+     * @return Número de entidades migradas
+     */
+    int removeShard(String name) {
+        long stamp = topologyLock.writeLock();
+        try {
+            R leaving = ring.shards().get(name);
+            if (leaving == null) {
+                throw new IllegalArgumentException("No existe el shard " + name);
+            }
+            if (ring.shards().size() == 1 && !operations.findAll(leaving).isEmpty()) {
+                throw new IllegalStateException("No se puede quitar el último shard con datos.");
+            }
+            ConsistentHashRing<R> target = ring.withoutShard(name);
+            int moved = migrate(Map.of(name, leaving), target);
+            ring.removeShard(name);
+            return moved;
+        } finally {
+            topologyLock.unlockWrite(stamp);
+        }
+    }
+
+    // Mueve a su nuevo dueño las entidades de los shards de origen que cambian de shard
+    private int migrate(Map<String, R> sources, ConsistentHashRing<R> target) {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (Map.Entry<String, R> source : sources.entrySet()) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                Map<String, List<T>> moves = new HashMap<>();
+                for (T entity : operations.findAll(source.getValue())) {
+                    String owner = target.shardNameFor(operations.keyOf(entity));
+                    if (!owner.equals(source.getKey())) {
+                        moves.computeIfAbsent(owner, key -> new ArrayList<>()).add(entity);
+                    }
+                }
+                int moved = 0;
+                for (Map.Entry<String, List<T>> move : moves.entrySet()) {
+                    operations.saveAll(target.shards().get(move.getKey()), move.getValue());
+                    for (T entity : move.getValue()) {
+                        operations.delete(source.getValue(), operations.keyOf(entity));
+                    }
+                    moved += move.getValue().size();
+                }
+                return moved;
+            }, executor));
+        }
+        return futures.stream().mapToInt(ShardRouter::await).sum();
+    }
+
+    Map<String, R> shards() {
+        return ring.shards();
+    }
+
+    String shardNameFor(String key) {
+        return ring.shardNameFor(key);
+    }
+
+    // --- Operaciones ---
+
+    T find(String key) {
+        return read(() -> operations.find(ring.shardFor(key), key));
+    }
+
+    void delete(String key) {
+        read(() -> {
+            operations.delete(ring.shardFor(key), key);
+            return null;
+        });
+    }
+
+    T save(T entity) {
+        return write(List.of(entity), byShard -> operations.save(byShard.keySet().iterator().next(), entity));
+    }
+
+    /**
+     * Agrupa las entidades por shard y guarda cada grupo en paralelo con el saveAll del shard.
+     */
+    List<T> saveAll(Collection<T> entities) {
+        return write(entities, byShard -> {
+            List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+            for (Map.Entry<R, List<T>> entry : byShard.entrySet()) {
+                futures.add(CompletableFuture.supplyAsync(
+                    () -> operations.saveAll(entry.getKey(), entry.getValue()), executor));
+            }
+            List<T> saved = new ArrayList<>(entities.size());
+            for (CompletableFuture<List<T>> future : futures) {
+                saved.addAll(await(future));
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * Búsqueda de varias claves a la vez: una petición por shard, en paralelo.
+     * @return Mapa clave -> entidad con las que existen
+     */
+    Map<String, T> findAll(Collection<String> keys) {
+        return read(() -> {
+            Map<R, List<String>> byShard = new LinkedHashMap<>();
+            for (String key : keys) {
+                byShard.computeIfAbsent(ring.shardFor(key), shard -> new ArrayList<>()).add(key);
+            }
+            List<CompletableFuture<List<T>>> futures = new ArrayList<>();
+            for (Map.Entry<R, List<String>> entry : byShard.entrySet()) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    List<T> found = new ArrayList<>();
+                    for (String key : entry.getValue()) {
+                        T entity = operations.find(entry.getKey(), key);
+                        if (entity != null) {
+                            found.add(entity);
+                        }
+                    }
+                    return found;
+                }, executor));
+            }
+            Map<String, T> result = new LinkedHashMap<>();
+            for (CompletableFuture<List<T>> future : futures) {
+                for (T entity : await(future)) {
+                    result.put(operations.keyOf(entity), entity);
+                }
+            }
+            return result;
+        });
+    }
+
+    Collection<T> findAll() {
+        return read(() -> {
+            List<CompletableFuture<Collection<T>>> futures = new ArrayList<>();
+            for (R shard : ring.shards().values()) {
+                futures.add(CompletableFuture.supplyAsync(() -> operations.findAll(shard), executor));
+            }
+            List<T> all = new ArrayList<>();
+            for (CompletableFuture<Collection<T>> future : futures) {
+                all.addAll(await(future));
+            }
+            return all;
+        });
+    }
+
+    // --- Control de la topología ---
+
+    // Operación que se puede repetir sin efectos añadidos (lecturas y borrados)
+    private <V> V read(Supplier<V> operation) {
+        long stamp = topologyLock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                V result = operation.get();
+                if (topologyLock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (topologyLock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        // Un rebalanceo se ha solapado: se repite cuando ya ha terminado
+        stamp = topologyLock.readLock();
+        try {
+            return operation.get();
+        } finally {
+            topologyLock.unlockRead(stamp);
+        }
+    }
+
+    // Guardado: si hay que repetirlo, se borran las copias que quedaran en el dueño del primer intento
+    private <V> V write(Collection<T> entities, Function<Map<R, List<T>>, V> operation) {
+        long stamp = topologyLock.tryOptimisticRead();
+        Map<R, List<T>> attempted = null;
+        if (stamp != 0) {
+            try {
+                attempted = groupByShard(entities);
+                V result = operation.apply(attempted);
+                if (topologyLock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (topologyLock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = topologyLock.readLock();
+        try {
+            V result = operation.apply(groupByShard(entities));
+            if (attempted != null) {
+                removeStrayCopies(attempted);
+            }
+            return result;
+        } finally {
+            topologyLock.unlockRead(stamp);
+        }
+    }
+
+    private Map<R, List<T>> groupByShard(Collection<T> entities) {
+        Map<R, List<T>> byShard = new LinkedHashMap<>();
+        for (T entity : entities) {
+            byShard.computeIfAbsent(ring.shardFor(operations.keyOf(entity)), shard -> new ArrayList<>()).add(entity);
+        }
+        return byShard;
+    }
+
+    private void removeStrayCopies(Map<R, List<T>> attempted) {
+        Collection<R> current = ring.shards().values();
+        for (Map.Entry<R, List<T>> entry : attempted.entrySet()) {
+            R shard = entry.getKey();
+            if (!current.contains(shard)) {
+                continue;
+            }
+            for (T entity : entry.getValue()) {
+                String key = operations.keyOf(entity);
+                if (ring.shardFor(key) != shard) {
+                    operations.delete(shard, key);
+                }
+            }
+        }
+    }
+
+    // Espera el resultado de un shard y relanza su excepción original
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
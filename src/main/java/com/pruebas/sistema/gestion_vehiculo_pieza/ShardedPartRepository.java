@@ -0,0 +1,136 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * PartRepository repartido en N shards independientes por hashing consistente del partNumber.
+ * - Cada shard es un PartRepository con su propio almacenamiento y sus propios bloqueos.
+ * - Las operaciones de varias claves se reparten por shard y se ejecutan en paralelo (scatter-gather).
+ * - Añadir o quitar un shard migra sólo las piezas que cambian de dueño.
+ * El enrutado, la migración y el control de la topología están en {@link ShardRouter}.
+ */
+public class ShardedPartRepository implements PartRepository {
+
+    private static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private static final ShardRouter.Operations<Part, PartRepository> OPERATIONS = new ShardRouter.Operations<>() {
+        @Override
+        public String keyOf(Part part) {
+            return part.getPartNumber();
+        }
+
+        @Override
+        public Part find(PartRepository shard, String partNumber) {
+            return shard.findByPartNumber(partNumber);
+        }
+
+        @Override
+        public Part save(PartRepository shard, Part part) {
+            return shard.save(part);
+        }
+
+        @Override
+        public List<Part> saveAll(PartRepository shard, Collection<Part> parts) {
+            return shard.saveAll(parts);
+        }
+
+        @Override
+        public void delete(PartRepository shard, String partNumber) {
+            shard.deleteByPartNumber(partNumber);
+        }
+
+        @Override
+        public Collection<Part> findAll(PartRepository shard) {
+            return shard.findAll();
+        }
+    };
+
+    private final ShardRouter<Part, PartRepository> router;
+
+    public ShardedPartRepository() {
+        this(DEFAULT_VIRTUAL_NODES, ForkJoinPool.commonPool());
+    }
+
+    public ShardedPartRepository(int virtualNodes, Executor executor) {
+        this.router = new ShardRouter<>(virtualNodes, executor, OPERATIONS);
+    }
+
+    /**
+     * Modo local de pruebas: N shards en memoria llamados shard-0 ... shard-(N-1).
+     */
+    public static ShardedPartRepository localCluster(int shardCount) {
+        ShardedPartRepository repository = new ShardedPartRepository();
+        for (int i = 0; i < shardCount; i++) {
+            repository.addShard("shard-" + i, new InMemoryPartRepository());
+        }
+        return repository;
+    }
+
+    // --- Topología ---
+
+    /**
+     * Añade un shard y le traslada las piezas que pasan a ser suyas.
+     * @return Número de piezas migradas
+     */
+    public int addShard(String name, PartRepository shard) {
+        return router.addShard(name, shard);
+    }
+
+    /**
+     * Quita un shard repartiendo antes todas sus piezas entre los demás.
+     * @return Número de piezas migradas
+     */
+    public int removeShard(String name) {
+        return router.removeShard(name);
+    }
+
+    public Map<String, PartRepository> shards() {
+        return router.shards();
+    }
+
+    public String shardNameFor(String partNumber) {
+        return router.shardNameFor(partNumber);
+    }
+
+    // --- PartRepository ---
+
+    @Override
+    public Part findByPartNumber(String partNumber) {
+        return router.find(partNumber);
+    }
+
+    @Override
+    public Part save(Part part) {
+        return router.save(part);
+    }
+
+    @Override
+    public void deleteByPartNumber(String partNumber) {
+        router.delete(partNumber);
+    }
+
+    /**
+     * Agrupa las piezas por shard y guarda cada grupo en paralelo con el saveAll del shard.
+     */
+    @Override
+    public List<Part> saveAll(Collection<Part> parts) {
+        return router.saveAll(parts);
+    }
+
+    /**
+     * Búsqueda de varias piezas a la vez: una petición por shard, en paralelo.
+     * @return Mapa partNumber -> pieza con las que existen
+     */
+    public Map<String, Part> findAllByPartNumber(Collection<String> partNumbers) {
+        return router.findAll(partNumbers);
+    }
+
+    @Override
+    public Collection<Part> findAll() {
+        return router.findAll();
+    }
+}
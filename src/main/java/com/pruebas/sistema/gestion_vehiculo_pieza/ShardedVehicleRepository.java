@@ -0,0 +1,136 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * VehicleRepository repartido en N shards independientes por hashing consistente del VIN.
+ * - Cada shard es un VehicleRepository con su propio almacenamiento y sus propios bloqueos.
+ * - Las operaciones de varias claves se reparten por shard y se ejecutan en paralelo (scatter-gather).
+ * - Añadir o quitar un shard migra sólo los vehículos que cambian de dueño.
+ * El enrutado, la migración y el control de la topología están en {@link ShardRouter}.
+ */
+public class ShardedVehicleRepository implements VehicleRepository {
+
+    private static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private static final ShardRouter.Operations<Vehicle, VehicleRepository> OPERATIONS = new ShardRouter.Operations<>() {
+        @Override
+        public String keyOf(Vehicle vehicle) {
+            return vehicle.getVin();
+        }
+
+        @Override
+        public Vehicle find(VehicleRepository shard, String vin) {
+            return shard.findByVin(vin);
+        }
+
+        @Override
+        public Vehicle save(VehicleRepository shard, Vehicle vehicle) {
+            return shard.save(vehicle);
+        }
+
+        @Override
+        public List<Vehicle> saveAll(VehicleRepository shard, Collection<Vehicle> vehicles) {
+            return shard.saveAll(vehicles);
+        }
+
+        @Override
+        public void delete(VehicleRepository shard, String vin) {
+            shard.deleteByVin(vin);
+        }
+
+        @Override
+        public Collection<Vehicle> findAll(VehicleRepository shard) {
+            return shard.findAll();
+        }
+    };
+
+    private final ShardRouter<Vehicle, VehicleRepository> router;
+
+    public ShardedVehicleRepository() {
+        this(DEFAULT_VIRTUAL_NODES, ForkJoinPool.commonPool());
+    }
+
+    public ShardedVehicleRepository(int virtualNodes, Executor executor) {
+        this.router = new ShardRouter<>(virtualNodes, executor, OPERATIONS);
+    }
+
+    /**
+     * Modo local de pruebas: N shards en memoria llamados shard-0 ... shard-(N-1).
+     */
+    public static ShardedVehicleRepository localCluster(int shardCount) {
+        ShardedVehicleRepository repository = new ShardedVehicleRepository();
+        for (int i = 0; i < shardCount; i++) {
+            repository.addShard("shard-" + i, new InMemoryVehicleRepository());
+        }
+        return repository;
+    }
+
+    // --- Topología ---
+
+    /**
+     * Añade un shard y le traslada los vehículos que pasan a ser suyos.
+     * @return Número de vehículos migrados
+     */
+    public int addShard(String name, VehicleRepository shard) {
+        return router.addShard(name, shard);
+    }
+
+    /**
+     * Quita un shard repartiendo antes todos sus vehículos entre los demás.
+     * @return Número de vehículos migrados
+     */
+    public int removeShard(String name) {
+        return router.removeShard(name);
+    }
+
+    public Map<String, VehicleRepository> shards() {
+        return router.shards();
+    }
+
+    public String shardNameFor(String vin) {
+        return router.shardNameFor(vin);
+    }
+
+    // --- VehicleRepository ---
+
+    @Override
+    public Vehicle findByVin(String vin) {
+        return router.find(vin);
+    }
+
+    @Override
+    public Vehicle save(Vehicle vehicle) {
+        return router.save(vehicle);
+    }
+
+    @Override
+    public void deleteByVin(String vin) {
+        router.delete(vin);
+    }
+
+    /**
+     * Agrupa los vehículos por shard y guarda cada grupo en paralelo con el saveAll del shard.
+     */
+    @Override
+    public List<Vehicle> saveAll(Collection<Vehicle> vehicles) {
+        return router.saveAll(vehicles);
+    }
+
+    /**
+     * Búsqueda de varios vehículos a la vez: una petición por shard, en paralelo.
+     * @return Mapa VIN -> vehículo con los que existen
+     */
+    public Map<String, Vehicle> findAllByVin(Collection<String> vins) {
+        return router.findAll(vins);
+    }
+
+    @Override
+    public Collection<Vehicle> findAll() {
+        return router.findAll();
+    }
+}
@@ -0,0 +1,103 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas concurrentes con la misma clave en una sola ejecución ("single flight").
+ * El primer hilo ejecuta la carga; los que llegan mientras tanto esperan su resultado
+ * (como máximo {@code maxWaitMillis}) en lugar de repetirla.
+ * No es una caché: en cuanto la llamada termina, la siguiente vuelve a ir al origen.
+ * Tras una escritura, {@link #forget} evita que las llamadas nuevas se unan a una carga anterior a ella.
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Contadores acumulados desde la creación.
+     * @param calls Llamadas recibidas
+     * @param executions Llamadas que fueron realmente al origen
+     * @param coalesced Llamadas que reutilizaron una ejecución en curso
+     * @param timeouts Esperas que superaron el máximo
+     */
+    public record Stats(long calls, long executions, long coalesced, long timeouts) { }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public SingleFlight(long maxWaitMillis) {
+        if (maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("La espera máxima debe ser mayor que cero.");
+        }
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Ejecuta la carga para la clave, o se une a la que ya esté en curso.
+     * Si la carga falla, todos los hilos agrupados reciben la misma excepción.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing == null) {
+            executions.increment();
+            try {
+                V value = loader.get();
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                // Se completa antes de quitarla: quien ya la obtuvo recibe este resultado
+                inFlight.remove(key, mine);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            return existing.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new IllegalStateException(
+                "Tiempo de espera agotado (" + maxWaitMillis + " ms) esperando la consulta en curso de " + key, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la consulta en curso de " + key, e);
+        }
+    }
+
+    /**
+     * Olvida la carga en curso de la clave: quien ya la esperaba recibe su resultado, pero las
+     * llamadas que lleguen después van de nuevo al origen. Se usa tras escribir la clave.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public Stats getStats() {
+        return new Stats(calls.sum(), executions.sum(), coalesced.sum(), timeouts.sum());
+    }
+
+    // Número de claves con una llamada en curso en este momento
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,66 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché LRU de miniaturas limitada por bytes (no por número de entradas):
+ * al superar el máximo se descartan las menos usadas recientemente.
+ */
+class ThumbnailCache {
+
+    private final long maxBytes;
+    // Orden de acceso: el primero es el menos usado recientemente
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    ThumbnailCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser mayor que cero.");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized byte[] get(String key) {
+        byte[] value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * Guarda la miniatura. Una entrada mayor que toda la caché no se guarda.
+     */
+    synchronized void put(String key, byte[] value) {
+        if (value.length > maxBytes) {
+            return;
+        }
+        byte[] previous = entries.put(key, value);
+        if (previous != null) {
+            usedBytes -= previous.length;
+        }
+        usedBytes += value.length;
+        Iterator<Map.Entry<String, byte[]>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, byte[]> entry = eldest.next();
+            usedBytes -= entry.getValue().length;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    synchronized boolean contains(String key) { return entries.containsKey(key); }
+    synchronized long getUsedBytes() { return usedBytes; }
+    synchronized int size() { return entries.size(); }
+    synchronized long getHits() { return hits; }
+    synchronized long getMisses() { return misses; }
+    synchronized long getEvictions() { return evictions; }
+    long getMaxBytes() { return maxBytes; }
+}
@@ -0,0 +1,281 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio de vehículos en dos niveles.
+ *
+ * Nivel caliente: los vehículos activos, en un mapa en el heap.
+ * Nivel frío: los vehículos SOLD y DISASSEMBLED, que ya no admiten transiciones, se vuelcan
+ * a segmentos de sólo lectura proyectados en memoria ({@link ColdSegment}) y se reconstruyen
+ * bajo demanda en findByVin. Cada vehículo devuelto desde el nivel frío es una copia nueva.
+ *
+ * Si se guarda de nuevo un vehículo que ya estaba en frío, la versión caliente lo oculta hasta
+ * el siguiente volcado. Borrar un vehículo frío deja una marca (VIN y número del siguiente segmento)
+ * en {@code tombstones.log}, forzada a disco: oculta las copias de los segmentos anteriores a ella,
+ * pero no las de un volcado posterior si el vehículo se vuelve a guardar.
+ *
+ * Al construirlo sobre una carpeta que ya tiene segmentos, los abre en orden, carga las marcas de
+ * borrado y los nuevos volcados continúan la numeración: el nivel frío persiste entre reinicios.
+ */
+public class TieredVehicleRepository implements VehicleRepository {
+
+    /**
+     * Uso de memoria por nivel.
+     * @param hotHeapBytes Estimación del heap ocupado por los vehículos calientes
+     * @param coldMappedBytes Bytes de los segmentos proyectados (fuera del heap)
+     */
+    public record TierStats(int hotVehicles, long hotHeapBytes, int coldVehicles, long coldMappedBytes, int segments) {
+
+        // Bytes calientes por cada byte frío (infinito si aún no hay nivel frío)
+        public double hotToColdRatio() {
+            return coldMappedBytes == 0 ? Double.POSITIVE_INFINITY : (double) hotHeapBytes / coldMappedBytes;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentHashMap<String, Vehicle> hot = new ConcurrentHashMap<>();
+    // Del más antiguo al más reciente; las búsquedas recorren al revés
+    private final CopyOnWriteArrayList<Segment> segments = new CopyOnWriteArrayList<>();
+    // VIN borrado -> primer número de segmento cuyas copias vuelven a ser visibles
+    private final ConcurrentHashMap<String, Integer> deletedCold = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingTerminal = new AtomicInteger();
+    private int nextSegment;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("vehicles-(\\d+)\\.seg");
+    private static final String TOMBSTONES = "tombstones.log";
+
+    private record Segment(int number, ColdSegment data) { }
+
+    /**
+     * @param directory Carpeta donde se escriben los segmentos fríos; los que ya tenga se abren
+     * @param segmentSize Número de vehículos en estado final que dispara un volcado automático
+     */
+    public TieredVehicleRepository(Path directory, int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de segmento debe ser mayor que cero.");
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear la carpeta " + directory, e);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        openExistingSegments();
+        loadTombstones();
+    }
+
+    // Abre los segmentos de una ejecución anterior por número (del más antiguo al más reciente)
+    private void openExistingSegments() {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                .filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                .sorted(Comparator.comparingInt(TieredVehicleRepository::segmentNumber))
+                .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer la carpeta " + directory, e);
+        }
+        for (Path file : files) {
+            int number = segmentNumber(file);
+            segments.add(new Segment(number, ColdSegment.open(file)));
+            nextSegment = number + 1;
+        }
+    }
+
+    // Una línea "VIN número" por borrado; una última línea cortada por una caída se ignora
+    private void loadTombstones() {
+        Path file = directory.resolve(TOMBSTONES);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                String[] fields = line.split(" ");
+                if (fields.length == 2 && fields[1].matches("\\d{1,9}")) {
+                    deletedCold.merge(fields[0], Integer.parseInt(fields[1]), Math::max);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer los borrados de " + file, e);
+        }
+    }
+
+    private static int segmentNumber(Path file) {
+        Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Nombre de segmento no válido: " + file);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    @Override
+    public Vehicle findByVin(String vin) {
+        Vehicle vehicle = hot.get(vin);
+        if (vehicle != null) {
+            return vehicle;
+        }
+        return findCold(vin);
+    }
+
+    // Busca del segmento más reciente al más antiguo, sin pasar de la marca de borrado del VIN
+    private Vehicle findCold(String vin) {
+        int visibleFrom = deletedCold.getOrDefault(vin, Integer.MIN_VALUE);
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            if (segment.number() < visibleFrom) {
+                return null;
+            }
+            Vehicle cold = segment.data().find(vin);
+            if (cold != null) {
+                return cold;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Vehicle save(Vehicle vehicle) {
+        hot.put(vehicle.getVin(), vehicle);
+        if (isTerminal(vehicle) && pendingTerminal.incrementAndGet() >= segmentSize) {
+            spill();
+        }
+        return vehicle;
+    }
+
+    @Override
+    public Collection<Vehicle> findAll() {
+        List<Vehicle> all = new ArrayList<>(hot.values());
+        Set<String> seen = new HashSet<>(hot.keySet());
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            segment.data().forEach(vehicle -> {
+                Integer visibleFrom = deletedCold.get(vehicle.getVin());
+                if ((visibleFrom == null || segment.number() >= visibleFrom) && seen.add(vehicle.getVin())) {
+                    all.add(vehicle);
+                }
+            });
+        }
+        return all;
+    }
+
+    /**
+     * Comparte el monitor con {@link #spill()}: si no, un borrado que no viera aún el segmento en
+     * escritura no dejaría marca y el vehículo reaparecería desde el nivel frío.
+     */
+    @Override
+    public synchronized void deleteByVin(String vin) {
+        hot.remove(vin);
+        if (findCold(vin) != null) {
+            // Primero a disco y después en memoria: una marca visible siempre sobrevive a un reinicio
+            appendTombstone(vin, nextSegment);
+            deletedCold.put(vin, nextSegment);
+        }
+    }
+
+    private void appendTombstone(String vin, int visibleFrom) {
+        Path file = directory.resolve(TOMBSTONES);
+        ByteBuffer line = ByteBuffer.wrap((vin + " " + visibleFrom + "\n").getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo registrar el borrado de " + vin, e);
+        }
+    }
+
+    /**
+     * Vuelca al nivel frío todos los vehículos calientes en estado final.
+     * Devuelve cuántos se han movido.
+     */
+    public synchronized int spill() {
+        pendingTerminal.set(0);
+        List<Vehicle> terminal = new ArrayList<>();
+        for (Vehicle vehicle : hot.values()) {
+            if (isTerminal(vehicle)) {
+                terminal.add(vehicle);
+            }
+        }
+        if (terminal.isEmpty()) {
+            return 0;
+        }
+        int number = nextSegment++;
+        Path file = directory.resolve(String.format("vehicles-%06d.seg", number));
+        segments.add(new Segment(number, ColdSegment.write(file, terminal)));
+        // El segmento ya es visible: quitarlo del heap no deja huecos para los lectores.
+        // remove(vin, vehicle) respeta un save concurrente con un objeto nuevo
+        int moved = 0;
+        for (Vehicle vehicle : terminal) {
+            if (hot.remove(vehicle.getVin(), vehicle)) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    public TierStats getTierStats() {
+        long hotBytes = 0;
+        for (Vehicle vehicle : hot.values()) {
+            hotBytes += estimateHeapBytes(vehicle);
+        }
+        int coldVehicles = 0;
+        long coldBytes = 0;
+        List<Segment> snapshot = List.copyOf(segments);
+        for (Segment segment : snapshot) {
+            coldVehicles += segment.data().count();
+            coldBytes += segment.data().mappedBytes();
+        }
+        return new TierStats(hot.size(), hotBytes, coldVehicles, coldBytes, snapshot.size());
+    }
+
+    public int getHotCount() {
+        return hot.size();
+    }
+
+    private static boolean isTerminal(Vehicle vehicle) {
+        Vehicle.VehicleStatus status = vehicle.getStatus();
+        return status == Vehicle.VehicleStatus.SOLD || status == Vehicle.VehicleStatus.DISASSEMBLED;
+    }
+
+    /**
+     * Estimación aproximada (JVM de 64 bits con punteros comprimidos y cadenas compactas):
+     * objeto Vehicle, dos LocalDateTime, la lista de fotos y las cadenas, más la entrada del mapa.
+     */
+    static long estimateHeapBytes(Vehicle vehicle) {
+        long bytes = 88 + 2 * 48 + 40 + 48;
+        bytes += stringBytes(vehicle.getVin()) + stringBytes(vehicle.getMake()) + stringBytes(vehicle.getModel())
+               + stringBytes(vehicle.getLicensePlate()) + stringBytes(vehicle.getOwnerId());
+        for (String photo : vehicle.getPhotos()) {
+            bytes += 4 + stringBytes(photo);
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+}
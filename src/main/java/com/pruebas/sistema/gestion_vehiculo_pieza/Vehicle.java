@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Pattern;
 
 public class Vehicle {
@@ -26,6 +27,8 @@ public class Vehicle {
     private String ownerId;
     private final LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Observadores de cambios (null hasta la primera suscripción para no gastar memoria)
+    private volatile CopyOnWriteArrayList<VehicleChangeListener> listeners;
 
     // Constante para el token de guardia
     private static final String FACTORY_AUTHORIZED = "FACTORY_AUTHORIZED";
@@ -35,6 +38,7 @@ public class Vehicle {
      */
     private Vehicle(String vin, String make, String model, int year, double purchasePrice,
                     int mileage, VehicleStatus initialStatus, double salePrice, String licensePlate,
+                    List<String> photos, String ownerId, LocalDateTime createdAt, LocalDateTime updatedAt,
                     String guardToken) {
         
         // Simulación del permiso de Python
@@ -55,10 +59,10 @@ public class Vehicle {
         this.status = initialStatus;
         
         // Atributos por defecto/iniciales
-        this.photos = new ArrayList<>();
-        this.ownerId = null;
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        this.photos = (photos != null) ? photos : new ArrayList<>();
+        this.ownerId = ownerId;
+        this.createdAt = (createdAt != null) ? createdAt : LocalDateTime.now();
+        this.updatedAt = (updatedAt != null) ? updatedAt : LocalDateTime.now();
     }
 
     // --- Métodos Estáticos (Fábricas) para Sobrecarga de Constructor ---
@@ -70,7 +74,7 @@ public class Vehicle {
         if (!validateVin(vin)) {
             throw new IllegalArgumentException("El VIN " + vin + " no es válido.");
         }
-        return new Vehicle(vin, make, model, year, purchasePrice, mileage, VehicleStatus.AVAILABLE, salePrice, licensePlate, FACTORY_AUTHORIZED);
+        return new Vehicle(vin, make, model, year, purchasePrice, mileage, VehicleStatus.AVAILABLE, salePrice, licensePlate, null, null, null, null, FACTORY_AUTHORIZED);
     }
     
     /**
@@ -81,7 +85,7 @@ public class Vehicle {
             throw new IllegalArgumentException("El VIN " + vin + " no es válido.");
         }
         // salePrice y licensePlate son opcionales en Python, aquí los ponemos a valores por defecto
-        return new Vehicle(vin, make, model, year, purchasePrice, mileage, VehicleStatus.FOR_DISASSEMBLED, 0.0, null, FACTORY_AUTHORIZED);
+        return new Vehicle(vin, make, model, year, purchasePrice, mileage, VehicleStatus.FOR_DISASSEMBLED, 0.0, null, null, null, null, null, FACTORY_AUTHORIZED);
     }
     
     /**
@@ -91,7 +95,19 @@ public class Vehicle {
         if (!validateVin(vin)) {
             throw new IllegalArgumentException("El VIN " + vin + " no es válido.");
         }
-        return new Vehicle(vin, make, model, year, purchasePrice, mileage, VehicleStatus.IN_REPAIR, 0.0, null, FACTORY_AUTHORIZED);
+        return new Vehicle(vin, make, model, year, purchasePrice, mileage, VehicleStatus.IN_REPAIR, 0.0, null, null, null, null, null, FACTORY_AUTHORIZED);
+    }
+
+    /**
+     * Fábrica interna para reconstruir un vehículo ya persistido (por ejemplo, desde JDBC).
+     * No valida el VIN ni el estado: los datos ya fueron validados al crearse.
+     * La lista de fotos puede ser una {@link LazyList} que se carga al primer acceso.
+     */
+    static Vehicle restore(String vin, String make, String model, int year, double purchasePrice,
+                           double salePrice, int mileage, String licensePlate, VehicleStatus status,
+                           String ownerId, List<String> photos, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        return new Vehicle(vin, make, model, year, purchasePrice, mileage, status, salePrice, licensePlate,
+                           photos, ownerId, createdAt, updatedAt, FACTORY_AUTHORIZED);
     }
 
     // --- Lógica de Negocio ---
@@ -122,7 +138,26 @@ public class Vehicle {
      * Agrega una URL de foto a la lista.
      */
     public void addPhoto(String urlPhoto) {
-        this.photos.add(urlPhoto);
+        synchronized (this) {
+            this.photos.add(urlPhoto);
+        }
+        notifyChange(VehicleChangeListener.Field.PHOTOS, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Añade la foto sólo si no estaba ya. Comprobación y alta van juntas bajo el monitor;
+     * los observadores se avisan después, como en reserve.
+     * @return false si la foto ya estaba anotada
+     */
+    public boolean addPhotoIfAbsent(String urlPhoto) {
+        synchronized (this) {
+            if (this.photos.contains(urlPhoto)) {
+                return false;
+            }
+            this.photos.add(urlPhoto);
+        }
+        notifyChange(VehicleChangeListener.Field.PHOTOS, Double.NaN, Double.NaN);
+        return true;
     }
 
     /**
@@ -132,18 +167,43 @@ public class Vehicle {
         return this.salePrice - this.purchasePrice;
     }
 
+    /**
+     * Metodo para reservar el vehículo a un cliente sólo si está disponible.
+     * Comprobación, estado y dueño cambian juntos bajo el monitor; los observadores se avisan después.
+     * @return false si el vehículo no estaba disponible
+     */
+    public boolean reserve(String ownerId) {
+        synchronized (this) {
+            if (this.status != VehicleStatus.AVAILABLE) {
+                return false;
+            }
+            this.status = VehicleStatus.RESERVED;
+            this.ownerId = ownerId;
+            this.updatedAt = LocalDateTime.now();
+        }
+        notifyChange(VehicleChangeListener.Field.STATUS, VehicleStatus.AVAILABLE.ordinal(), VehicleStatus.RESERVED.ordinal());
+        notifyChange(VehicleChangeListener.Field.OWNER, Double.NaN, Double.NaN);
+        return true;
+    }
+
     /**
      * Metodo para cambiar el estado del vehículo, aplicando validación.
+     * La validación y el cambio son atómicos, para que dos hilos no validen a la vez el mismo estado
+     * de partida; los observadores se avisan después de soltar el monitor.
      */
     public void updateStatus(VehicleStatus newStatus) {
-        if (isTransitionValid(newStatus)) {
+        VehicleStatus previous;
+        synchronized (this) {
+            if (!isTransitionValid(newStatus)) {
+                throw new IllegalArgumentException(
+                    String.format("Transición ilegal de %s a %s", this.status, newStatus)
+                );
+            }
+            previous = this.status;
             this.status = newStatus;
             this.updatedAt = LocalDateTime.now();
-        } else {
-            throw new IllegalArgumentException(
-                String.format("Transición ilegal de %s a %s", this.status, newStatus)
-            );
         }
+        notifyChange(VehicleChangeListener.Field.STATUS, previous.ordinal(), newStatus.ordinal());
     }
 
     /**
@@ -172,6 +232,44 @@ public class Vehicle {
         }
     }
 
+    // --- Observadores ---
+
+    /**
+     * Metodo para suscribir un observador a los cambios del vehículo (se ignora si ya estaba).
+     */
+    public void addChangeListener(VehicleChangeListener listener) {
+        CopyOnWriteArrayList<VehicleChangeListener> current = listeners;
+        if (current == null) {
+            synchronized (this) {
+                current = listeners;
+                if (current == null) {
+                    current = new CopyOnWriteArrayList<>();
+                    listeners = current;
+                }
+            }
+        }
+        current.addIfAbsent(listener);
+    }
+
+    /**
+     * Metodo para dar de baja un observador.
+     */
+    public void removeChangeListener(VehicleChangeListener listener) {
+        CopyOnWriteArrayList<VehicleChangeListener> current = listeners;
+        if (current != null) {
+            current.remove(listener);
+        }
+    }
+
+    private void notifyChange(VehicleChangeListener.Field field, double oldValue, double newValue) {
+        CopyOnWriteArrayList<VehicleChangeListener> current = listeners;
+        if (current != null) {
+            for (VehicleChangeListener listener : current) {
+                listener.onVehicleChanged(this, field, oldValue, newValue);
+            }
+        }
+    }
+
     // --- Getters y Setters ---
 
     // Getters
@@ -191,15 +289,45 @@ public class Vehicle {
     public boolean isAvailableForSale() { return this.status == VehicleStatus.AVAILABLE; }
     public boolean canBeDisassembled() { return this.status == VehicleStatus.FOR_DISASSEMBLED; }
     public boolean needsRepair() { return this.status == VehicleStatus.IN_REPAIR; }
+    // Indica si la lista de fotos ya está en memoria (false si es perezosa y nunca se leyó)
+    boolean isPhotosLoaded() { return LazyList.isLoaded(photos); }
 
     // Setters
-    public void setMake(String make) { this.make = make; }
-    public void setModel(String model) { this.model = model; }
-    public void setYear(int year) { this.year = year; }
-    public void setPurchasePrice(double purchasePrice) { this.purchasePrice = purchasePrice; }
-    public void setSalePrice(double salePrice) { this.salePrice = salePrice; }
-    public void setMileage(int mileage) { this.mileage = mileage; }
-    public void setLicensePlate(String licensePlate) { this.licensePlate = licensePlate; }
-    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+    public void setMake(String make) {
+        this.make = make;
+        notifyChange(VehicleChangeListener.Field.MAKE, Double.NaN, Double.NaN);
+    }
+    public void setModel(String model) {
+        this.model = model;
+        notifyChange(VehicleChangeListener.Field.MODEL, Double.NaN, Double.NaN);
+    }
+    public void setYear(int year) {
+        int previous = this.year;
+        this.year = year;
+        notifyChange(VehicleChangeListener.Field.YEAR, previous, year);
+    }
+    public void setPurchasePrice(double purchasePrice) {
+        double previous = this.purchasePrice;
+        this.purchasePrice = purchasePrice;
+        notifyChange(VehicleChangeListener.Field.PURCHASE_PRICE, previous, purchasePrice);
+    }
+    public void setSalePrice(double salePrice) {
+        double previous = this.salePrice;
+        this.salePrice = salePrice;
+        notifyChange(VehicleChangeListener.Field.SALE_PRICE, previous, salePrice);
+    }
+    public void setMileage(int mileage) {
+        int previous = this.mileage;
+        this.mileage = mileage;
+        notifyChange(VehicleChangeListener.Field.MILEAGE, previous, mileage);
+    }
+    public void setLicensePlate(String licensePlate) {
+        this.licensePlate = licensePlate;
+        notifyChange(VehicleChangeListener.Field.LICENSE_PLATE, Double.NaN, Double.NaN);
+    }
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+        notifyChange(VehicleChangeListener.Field.OWNER, Double.NaN, Double.NaN);
+    }
 
 }
@@ -0,0 +1,18 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+/**
+ * Observador de los cambios de un Vehicle.
+ * Se registra con {@link Vehicle#addChangeListener(VehicleChangeListener)} y recibe
+ * el aviso después de que el cambio se haya aplicado.
+ * En STATUS los valores son el ordinal del estado anterior y del nuevo; en los campos
+ * numéricos, el valor anterior y el nuevo; en los de texto ambos son NaN.
+ */
+public interface VehicleChangeListener {
+
+    // Campos de Vehicle que pueden cambiar después de la creación
+    enum Field {
+        STATUS, SALE_PRICE, PURCHASE_PRICE, MILEAGE, YEAR, MAKE, MODEL, LICENSE_PLATE, OWNER, PHOTOS
+    }
+
+    void onVehicleChanged(Vehicle vehicle, Field field, double oldValue, double newValue);
+}
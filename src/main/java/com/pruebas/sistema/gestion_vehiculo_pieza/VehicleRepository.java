@@ -1,4 +1,8 @@
 package com.pruebas.sistema.gestion_vehiculo_pieza;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.stereotype.Repository;
 
 //Anotación clave para que Spring la reconozca como un componente
@@ -6,4 +10,19 @@ import org.springframework.stereotype.Repository;
 public interface VehicleRepository {
  Vehicle findByVin(String vin);
  Vehicle save(Vehicle vehicle);
+
+ // Devuelve todos los vehículos almacenados
+ Collection<Vehicle> findAll();
+
+ // Elimina un vehículo; no hace nada si no existe
+ void deleteByVin(String vin);
+
+ // Guarda varios vehículos; las implementaciones pueden hacerlo en un único lote
+ default List<Vehicle> saveAll(Collection<Vehicle> vehicles) {
+     List<Vehicle> saved = new ArrayList<>(vehicles.size());
+     for (Vehicle vehicle : vehicles) {
+         saved.add(save(vehicle));
+     }
+     return saved;
+ }
 }
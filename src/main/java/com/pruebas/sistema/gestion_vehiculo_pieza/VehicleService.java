@@ -15,6 +15,12 @@ public class VehicleService {
 
     /**
      * Lógica de negocio: Reserva un vehículo, actualizando su estado y dueño.
+     *
+     * La comprobación y la reserva son atómicas sobre el objeto devuelto por el repositorio
+     * ({@link Vehicle#reserve}), así que dos reservas simultáneas sólo se excluyen si el repositorio
+     * devuelve siempre la misma instancia para un VIN (en memoria, repartido en memoria o agrupado sobre
+     * ellos). Con repositorios que construyen un objeto nuevo en cada lectura, como JdbcVehicleRepository,
+     * esa exclusión debe hacerla el propio almacén (p. ej. un UPDATE condicionado al estado).
      */
     public Vehicle reserveVehicle(String vin, String ownerId) {
         Vehicle vehicle = vehicleRepository.findByVin(vin);
@@ -23,13 +29,10 @@ public class VehicleService {
             throw new RuntimeException("Vehículo no encontrado");
         }
         
-        // La validación y cambio de estado están en la clase Vehicle (lógica de dominio)
-        if (vehicle.getStatus() == Vehicle.VehicleStatus.AVAILABLE) {
-            vehicle.updateStatus(Vehicle.VehicleStatus.RESERVED);
-            vehicle.setOwnerId(ownerId);
-            return vehicleRepository.save(vehicle); // Persistencia
-        } else {
-             throw new IllegalArgumentException("El vehículo no está disponible para reservar.");
+        // La validación y cambio de estado están en la clase Vehicle (lógica de dominio).
+        if (!vehicle.reserve(ownerId)) {
+            throw new IllegalArgumentException("El vehículo no está disponible para reservar.");
         }
+        return vehicleRepository.save(vehicle); // Persistencia
     }
 }
\ No newline at end of file
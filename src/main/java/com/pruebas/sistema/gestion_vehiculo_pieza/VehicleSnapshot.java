@@ -0,0 +1,20 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+/**
+ * Copia inmutable de un vehículo en una versión concreta, para informes.
+ */
+public record VehicleSnapshot(String vin, String make, String model, int year, double purchasePrice,
+                              double salePrice, Vehicle.VehicleStatus status, String ownerId) {
+
+    // Se copia bajo el monitor del vehículo para no mezclar un cambio de estado a medias
+    static VehicleSnapshot of(Vehicle vehicle) {
+        synchronized (vehicle) {
+            return new VehicleSnapshot(vehicle.getVin(), vehicle.getMake(), vehicle.getModel(), vehicle.getYear(),
+                vehicle.getPurchasePrice(), vehicle.getSalePrice(), vehicle.getStatus(), vehicle.getOwnerId());
+        }
+    }
+
+    public double calculateProfit() {
+        return this.salePrice - this.purchasePrice;
+    }
+}
@@ -0,0 +1,98 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Cadenas de versiones por clave, de la más reciente a la más antigua.
+ * Un valor null en una versión marca un borrado. Las escrituras las serializa InventoryVersions;
+ * las lecturas no bloquean nunca.
+ */
+final class VersionedStore<K, V> {
+
+    private static final class Version<V> {
+        final long version;
+        final V value;
+        volatile Version<V> older;
+
+        Version(long version, V value, Version<V> older) {
+            this.version = version;
+            this.value = value;
+            this.older = older;
+        }
+    }
+
+    private final ConcurrentHashMap<K, Version<V>> chains = new ConcurrentHashMap<>();
+
+    /**
+     * Añade una versión nueva y descarta las que ya no puede ver ningún lector.
+     */
+    void install(K key, long version, V value, long watermark) {
+        Version<V> head = chains.compute(key, (k, previous) -> new Version<>(version, value, previous));
+        trim(head, watermark);
+    }
+
+    // Último valor con versión menor o igual a la pedida (null si no existía o estaba borrado)
+    V read(K key, long version) {
+        for (Version<V> node = chains.get(key); node != null; node = node.older) {
+            if (node.version <= version) {
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    void forEachVisible(long version, Consumer<V> action) {
+        for (K key : chains.keySet()) {
+            V value = read(key, version);
+            if (value != null) {
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Recorre todas las cadenas y elimina las versiones anteriores a la marca de agua.
+     * Las claves cuyo borrado ya es visible para todos los lectores desaparecen del mapa.
+     * Devuelve el número de versiones liberadas.
+     */
+    int collect(long watermark) {
+        int released = 0;
+        for (Map.Entry<K, Version<V>> entry : chains.entrySet()) {
+            Version<V> head = entry.getValue();
+            released += trim(head, watermark);
+            if (head.value == null && head.version <= watermark && chains.remove(entry.getKey(), head)) {
+                released++;
+            }
+        }
+        return released;
+    }
+
+    long versionCount() {
+        long count = 0;
+        for (Version<V> head : chains.values()) {
+            for (Version<V> node = head; node != null; node = node.older) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Conserva la versión más reciente que ve la marca de agua y corta todo lo anterior
+    private static <V> int trim(Version<V> head, long watermark) {
+        Version<V> keep = head;
+        while (keep != null && keep.version > watermark) {
+            keep = keep.older;
+        }
+        if (keep == null) {
+            return 0;
+        }
+        int released = 0;
+        for (Version<V> node = keep.older; node != null; node = node.older) {
+            released++;
+        }
+        keep.older = null;
+        return released;
+    }
+}
@@ -0,0 +1,193 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeEventFeedTest {
+
+    @Test
+    @DisplayName("updateStock, updateStatus y los setters publican eventos con valor anterior y nuevo")
+    void mutacionesPublicanEventos() {
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        ChangeEventFeed feed = new ChangeEventFeed(16, ChangeEventFeed.OverflowPolicy.BLOCK, 8);
+        feed.subscribe("log", (event, sequence, endOfBatch) -> {
+            if (event.isStatusTransition()) {
+                received.add(event.getKey() + " " + event.getOldStatus() + "->" + event.getNewStatus());
+            } else {
+                String field = event.getEntityType() == ChangeEvent.EntityType.PART
+                    ? event.getPartField().name() : event.getVehicleField().name();
+                received.add(event.getKey() + " " + field + " " + event.getOldValue() + "->" + event.getNewValue());
+            }
+        });
+        feed.start();
+
+        Part part = Part.createFromSupplier("PN-1", "Filtro", 10, 15.0, "A-1", "SUP-1", 2, null);
+        Vehicle vehicle = Vehicle.buyForSale("1G1RC71839Y100001", "Toyota", "Corolla", 2022, 15000, 1000, 17000, "4327GTF");
+        feed.track(part);
+        feed.track(vehicle);
+
+        part.updateStock(-3);
+        part.setUnitPrice(16.5);
+        vehicle.updateStatus(Vehicle.VehicleStatus.RESERVED);
+        vehicle.setSalePrice(17500);
+        feed.close();
+
+        assertEquals(List.of(
+            "PN-1 STOCK 10.0->7.0",
+            "PN-1 UNIT_PRICE 15.0->16.5",
+            "1G1RC71839Y100001 AVAILABLE->RESERVED",
+            "1G1RC71839Y100001 SALE_PRICE 17000.0->17500.0"), received);
+    }
+
+    @Test
+    @DisplayName("Con BLOCK varios productores y consumidores no pierden eventos")
+    void blockNoPierdeEventos() throws InterruptedException {
+        int producers = 4;
+        int eventsPerProducer = 20_000;
+        AtomicLong stockTotal = new AtomicLong();
+        AtomicLong eventCount = new AtomicLong();
+        AtomicLong batches = new AtomicLong();
+        ChangeEventFeed feed = new ChangeEventFeed(1024, ChangeEventFeed.OverflowPolicy.BLOCK, 64);
+        feed.subscribe("stock", (event, sequence, endOfBatch) -> {
+            stockTotal.addAndGet((long) (event.getNewValue() - event.getOldValue()));
+        });
+        feed.subscribe("contador", (event, sequence, endOfBatch) -> {
+            eventCount.incrementAndGet();
+            if (endOfBatch) {
+                batches.incrementAndGet();
+            }
+        });
+        feed.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Part part = Part.createFromSupplier("PN-" + p, "Pieza", 0, 1.0, "A", "SUP", 0, null);
+            feed.track(part);
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    part.updateStock(1);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        feed.close();
+
+        long expected = (long) producers * eventsPerProducer;
+        assertEquals(expected, feed.getPublishedCount());
+        assertEquals(0, feed.getDroppedCount());
+        assertEquals(expected, stockTotal.get());
+        assertEquals(expected, eventCount.get());
+        assertTrue(batches.get() <= expected);
+    }
+
+    @Test
+    @DisplayName("Con DROP el buffer lleno descarta eventos en lugar de bloquear")
+    void dropDescartaCuandoEstaLleno() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong consumed = new AtomicLong();
+        ChangeEventFeed feed = new ChangeEventFeed(4, ChangeEventFeed.OverflowPolicy.DROP, 16);
+        feed.subscribe("lento", (event, sequence, endOfBatch) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            consumed.incrementAndGet();
+        });
+        feed.start();
+
+        Part part = Part.createFromSupplier("PN-1", "Filtro", 0, 1.0, "A-1", "SUP-1", 0, null);
+        feed.track(part);
+        for (int i = 0; i < 10; i++) {
+            part.updateStock(1);
+        }
+        release.countDown();
+        feed.close();
+
+        assertEquals(4, feed.getPublishedCount());
+        assertEquals(6, feed.getDroppedCount());
+        assertEquals(4, consumed.get());
+        assertEquals(10, part.getQuantityInStock(), "Descartar eventos no afecta a la pieza");
+    }
+
+    @Test
+    @DisplayName("Antes de start() no se puede observar y los eventos se descartan sin bloquear")
+    void eventosAntesDeArrancar() {
+        AtomicLong consumed = new AtomicLong();
+        ChangeEventFeed feed = new ChangeEventFeed(4, ChangeEventFeed.OverflowPolicy.BLOCK, 8);
+        feed.subscribe("contador", (event, sequence, endOfBatch) -> consumed.incrementAndGet());
+        Part part = Part.createFromSupplier("PN-1", "Filtro", 0, 1.0, "A-1", "SUP-1", 0, null);
+
+        assertThrows(IllegalStateException.class, () -> feed.track(part));
+        // Un observador registrado a mano tampoco puede llenar el buffer antes de arrancar
+        part.addChangeListener(feed);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 10; i++) {
+                part.updateStock(1);
+            }
+        });
+        assertEquals(10, feed.getDroppedCount());
+
+        feed.start();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 10; i++) {
+                part.updateStock(1);
+            }
+        });
+        feed.close();
+        assertEquals(10, feed.getPublishedCount());
+        assertEquals(10, consumed.get());
+    }
+
+    @Test
+    @DisplayName("close() entrega todo lo reclamado aunque los productores sigan publicando")
+    void cierreConProductoresActivos() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AtomicLong consumed = new AtomicLong();
+            ChangeEventFeed feed = new ChangeEventFeed(1024, ChangeEventFeed.OverflowPolicy.BLOCK, 64);
+            feed.subscribe("contador", (event, sequence, endOfBatch) -> consumed.incrementAndGet());
+            feed.start();
+            List<Thread> producers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Part part = Part.createFromSupplier("PN-" + t, "Pieza", 0, 1.0, "A-1", "SUP-1", 0, null);
+                feed.track(part);
+                Thread producer = new Thread(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        part.updateStock(1);
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            Thread.sleep(1);
+            feed.close();
+            for (Thread producer : producers) {
+                producer.join(10_000);
+            }
+
+            assertEquals(feed.getPublishedCount(), consumed.get());
+            assertEquals(4 * 20_000, feed.getPublishedCount() + feed.getDroppedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("La capacidad debe ser potencia de dos")
+    void capacidadInvalida() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new ChangeEventFeed(100, ChangeEventFeed.OverflowPolicy.BLOCK, 8));
+    }
+}
@@ -0,0 +1,205 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FleetAnalyticsTest {
+
+    private static final String[] MAKES = { "Toyota", "Seat", "Ford", "Renault", "Kia" };
+    private static final String[] MODELS = { "A", "B", "C", "D" };
+
+    private static String vin(int i) {
+        return String.format("1G1RC718%09d", i);
+    }
+
+    @Test
+    @DisplayName("Los márgenes por grupo y el beneficio realizado/previsto siguen a los cambios del vehículo")
+    void agregadosIncrementales() {
+        FleetAnalytics analytics = new FleetAnalytics();
+        Vehicle corolla = Vehicle.buyForSale(vin(1), "Toyota", "Corolla", 2022, 15000, 1000, 17000, "4327GTF");
+        Vehicle leon = Vehicle.buyForSale(vin(2), "Seat", "León", 2020, 9000, 40000, 11500, "1234BCD");
+        Vehicle fiesta = Vehicle.buyForRepair(vin(3), "Ford", "Fiesta", 2020, 2500, 120000);
+        analytics.trackAll(List.of(corolla, leon, fiesta));
+
+        FleetAnalytics.FleetReport report = analytics.report();
+        assertEquals(4500.0, report.projectedProfit(), 0.001);
+        assertEquals(0.0, report.realizedProfit(), 0.001);
+        assertEquals(2, report.byYear().get(2020).vehicles());
+
+        leon.updateStatus(Vehicle.VehicleStatus.RESERVED);
+        leon.setSalePrice(11000);
+        leon.updateStatus(Vehicle.VehicleStatus.SOLD);
+        fiesta.setSalePrice(4000);
+        fiesta.updateStatus(Vehicle.VehicleStatus.AVAILABLE);
+        corolla.setPurchasePrice(14500);
+
+        report = analytics.report();
+        assertEquals(2000.0, report.realizedProfit(), 0.001);
+        assertEquals(2500.0 + 1500.0, report.projectedProfit(), 0.001);
+        assertEquals(11000.0, report.byMake().get("Seat").saleTotal(), 0.001);
+        assertEquals(1500.0 / 4000.0, report.byModel().get("Ford Fiesta").marginRatio(), 0.0001);
+        assertNull(report.byStatus().get(Vehicle.VehicleStatus.IN_REPAIR));
+        assertTrue(analytics.verify());
+
+        // Los cambios de agrupación también mueven el vehículo de grupo
+        corolla.setYear(2020);
+        analytics.untrack(leon);
+        leon.setSalePrice(1);
+        report = analytics.report();
+        assertEquals(2, report.byYear().get(2020).vehicles());
+        assertNull(report.byYear().get(2022));
+        assertEquals(0.0, report.realizedProfit(), 0.001);
+        assertEquals(2, analytics.size());
+        assertTrue(analytics.verify());
+    }
+
+    @Test
+    @DisplayName("Tras muchas actualizaciones aleatorias los incrementales coinciden con el recálculo en paralelo")
+    void incrementalesCoincidenConRecalculo() {
+        FleetAnalytics analytics = new FleetAnalytics();
+        Random random = new Random(42);
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Vehicle vehicle = Vehicle.buyForSale(vin(i), MAKES[i % MAKES.length], MODELS[i % MODELS.length],
+                2010 + i % 12, 5000 + random.nextInt(20000), 10000, 8000 + random.nextInt(20000), null);
+            fleet.add(vehicle);
+            analytics.track(vehicle);
+        }
+        for (int i = 0; i < 20_000; i++) {
+            Vehicle vehicle = fleet.get(random.nextInt(fleet.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> vehicle.setSalePrice(vehicle.getSalePrice() + random.nextInt(1000) - 500 + 0.37);
+                case 1 -> vehicle.setPurchasePrice(vehicle.getPurchasePrice() + random.nextInt(200) - 100);
+                default -> {
+                    if (vehicle.getStatus() == Vehicle.VehicleStatus.AVAILABLE) {
+                        vehicle.updateStatus(Vehicle.VehicleStatus.RESERVED);
+                    } else if (vehicle.getStatus() == Vehicle.VehicleStatus.RESERVED) {
+                        vehicle.updateStatus(random.nextBoolean() ? Vehicle.VehicleStatus.SOLD : Vehicle.VehicleStatus.AVAILABLE);
+                    }
+                }
+            }
+        }
+
+        FleetAnalytics.FleetReport incremental = analytics.report();
+        assertEquals(incremental, analytics.recompute());
+        double expectedRealized = fleet.stream()
+            .filter(v -> v.getStatus() == Vehicle.VehicleStatus.SOLD)
+            .mapToDouble(Vehicle::calculateProfit).sum();
+        assertEquals(expectedRealized, incremental.realizedProfit(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Con cambios concurrentes sobre los mismos vehículos los agregados acaban en su estado real")
+    void cambiosConcurrentes() throws Exception {
+        FleetAnalytics analytics = new FleetAnalytics();
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            fleet.add(Vehicle.buyForSale(vin(i), MAKES[i % MAKES.length], MODELS[i % MODELS.length], 2020,
+                10000, 30000, 12000, "P-" + i));
+        }
+        analytics.trackAll(fleet);
+        Vehicle.VehicleStatus[] targets = {
+            Vehicle.VehicleStatus.AVAILABLE, Vehicle.VehicleStatus.IN_REPAIR, Vehicle.VehicleStatus.SOLD };
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(t);
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        Vehicle vehicle = fleet.get(random.nextInt(fleet.size()));
+                        switch (random.nextInt(4)) {
+                            case 0 -> vehicle.setSalePrice(10000 + random.nextInt(5000));
+                            case 1 -> vehicle.setPurchasePrice(8000 + random.nextInt(4000));
+                            case 2 -> vehicle.reserve("CLIENTE-" + i);
+                            default -> {
+                                try {
+                                    vehicle.updateStatus(targets[random.nextInt(targets.length)]);
+                                } catch (IllegalArgumentException e) {
+                                    // Transición no válida desde el estado actual: se ignora
+                                }
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        FleetAnalytics fresh = new FleetAnalytics();
+        fresh.trackAll(fleet);
+        assertEquals(fresh.report(), analytics.report());
+        assertEquals(analytics.recompute(), analytics.report());
+    }
+
+    /**
+     * Benchmark de columnas: sólo se ejecuta si se indica el número de filas, para no alargar la suite.
+     * Ejemplo: mvn test -Dtest=FleetAnalyticsTest -Dfleet.benchmark.vehicles=10000000
+     * (unos 300 MB de columnas; conviene -DargLine=-Xmx2g). Los tiempos se publican en el informe de JUnit.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "fleet.benchmark.vehicles", matches = "\\d+")
+    @DisplayName("Benchmark: carga, actualizaciones incrementales y recálculo completo")
+    void benchmark(TestReporter reporter) {
+        int vehicles = Integer.getInteger("fleet.benchmark.vehicles");
+        int updates = Math.min(vehicles, 1_000_000);
+        FleetAnalytics analytics = new FleetAnalytics();
+        Vehicle.VehicleStatus[] statuses = Vehicle.VehicleStatus.values();
+        Random random = new Random(7);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < vehicles; i++) {
+            analytics.addRow(null, MAKES[i % MAKES.length], MODELS[i % MODELS.length], 2000 + i % 25,
+                statuses[i % statuses.length], 1000 + i % 9000, 1500 + i % 9500);
+        }
+        long loadNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            int slot = random.nextInt(vehicles);
+            switch (i % 3) {
+                case 0 -> analytics.updateSalePrice(slot, 2000 + random.nextInt(10000));
+                case 1 -> analytics.updatePurchasePrice(slot, 1000 + random.nextInt(8000));
+                default -> analytics.updateStatus(slot, statuses[random.nextInt(statuses.length)]);
+            }
+        }
+        long updateNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        FleetAnalytics.FleetReport incremental = analytics.report();
+        long reportNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        FleetAnalytics.FleetReport recomputed = analytics.recompute();
+        long recomputeNanos = System.nanoTime() - start;
+
+        reporter.publishEntry(Map.of(
+            "vehiculos", String.valueOf(vehicles),
+            "cargaMs", String.valueOf(loadNanos / 1_000_000),
+            "actualizacionNsOp", String.format("%.0f", (double) updateNanos / updates),
+            "informeMicros", String.valueOf(reportNanos / 1_000),
+            "recalculoMs", String.valueOf(recomputeNanos / 1_000_000)));
+
+        assertEquals(incremental, recomputed);
+        assertEquals(vehicles, incremental.byStatus().values().stream().mapToLong(FleetAnalytics.Margin::vehicles).sum());
+    }
+}
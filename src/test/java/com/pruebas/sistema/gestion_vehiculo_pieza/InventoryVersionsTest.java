@@ -0,0 +1,149 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InventoryVersionsTest {
+
+    private static InMemoryPartRepository seedParts(int count, int quantity) {
+        InMemoryPartRepository store = new InMemoryPartRepository();
+        for (int i = 0; i < count; i++) {
+            store.save(Part.createFromSupplier("PN-" + i, "Pieza " + i, quantity, 2.0, "A", "SUP-1", 0, null));
+        }
+        return store;
+    }
+
+    @Test
+    @DisplayName("Una vista abierta no ve las retiradas de stock concurrentes y una nueva sí")
+    void vistaConsistenteConEscritoresConcurrentes() throws Exception {
+        InventoryVersions versions = new InventoryVersions();
+        PartService service = new PartService(versions.track(seedParts(50, 1_000)));
+        int threads = 8;
+        int removalsPerThread = 2_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (ReadView view = versions.openReadView()) {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int seed = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < removalsPerThread; i++) {
+                        service.removeStock("PN-" + ((seed * 7 + i) % 50), 1);
+                    }
+                }));
+            }
+            // Mientras los escritores trabajan la vista sigue viendo el mismo inventario
+            while (!writers.stream().allMatch(Future::isDone)) {
+                assertEquals(100_000.0, view.totalStockValue(), 0.001);
+                assertEquals(1_000, view.findPart("PN-3").quantityInStock());
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(50, view.stockListing().size());
+            assertEquals(100_000.0, view.totalStockValue(), 0.001);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (ReadView after = versions.openReadView()) {
+            int removed = threads * removalsPerThread;
+            assertEquals((50 * 1_000 - removed) * 2.0, after.totalStockValue(), 0.001);
+        }
+    }
+
+    @Test
+    @DisplayName("Vistas sucesivas nunca ven subir el stock de una pieza que sólo se retira")
+    void versionesSucesivasMonotonas() throws Exception {
+        InventoryVersions versions = new InventoryVersions();
+        PartService service = new PartService(versions.track(seedParts(1, 10_000_000)));
+        int threads = 16;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        service.removeStock("PN-0", 1);
+                    }
+                }));
+            }
+            int previous = Integer.MAX_VALUE;
+            while (!writers.stream().allMatch(Future::isDone)) {
+                try (ReadView view = versions.openReadView()) {
+                    int stock = view.findPart("PN-0").quantityInStock();
+                    assertTrue(stock <= previous, "El stock subió de " + previous + " a " + stock);
+                    previous = stock;
+                }
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (ReadView view = versions.openReadView()) {
+            assertEquals(10_000_000 - threads * 5_000, view.findPart("PN-0").quantityInStock());
+        }
+    }
+
+    @Test
+    @DisplayName("Las reservas posteriores a la vista no alteran su beneficio por estado")
+    void reservasNoAlteranVista() {
+        InventoryVersions versions = new InventoryVersions();
+        InMemoryVehicleRepository store = new InMemoryVehicleRepository();
+        store.save(Vehicle.buyForSale("1G1RC71839Y100001", "Toyota", "Corolla", 2022, 15000, 1000, 17000, "4327GTF"));
+        store.save(Vehicle.buyForSale("2G1RC71839Y100002", "Seat", "León", 2020, 9000, 40000, 11500, "1234BCD"));
+        VehicleService service = new VehicleService(versions.track(store));
+
+        try (ReadView view = versions.openReadView()) {
+            service.reserveVehicle("1G1RC71839Y100001", "CLIENTE-1");
+
+            assertEquals(Vehicle.VehicleStatus.AVAILABLE, view.findVehicle("1G1RC71839Y100001").status());
+            assertEquals(4500.0, view.fleetProfit(Vehicle.VehicleStatus.AVAILABLE), 0.001);
+            assertEquals(0.0, view.fleetProfit(Vehicle.VehicleStatus.RESERVED), 0.001);
+        }
+        try (ReadView view = versions.openReadView()) {
+            assertEquals("CLIENTE-1", view.findVehicle("1G1RC71839Y100001").ownerId());
+            assertEquals(2000.0, view.fleetProfit(Vehicle.VehicleStatus.RESERVED), 0.001);
+            assertEquals(4500.0, view.fleetProfit(null), 0.001);
+        }
+    }
+
+    @Test
+    @DisplayName("Las versiones antiguas se liberan al cerrar la última vista que las necesitaba")
+    void recoleccionDeVersiones() {
+        InventoryVersions versions = new InventoryVersions();
+        PartRepository repository = versions.track(seedParts(10, 100));
+        PartService service = new PartService(repository);
+
+        ReadView view = versions.openReadView();
+        for (int i = 0; i < 100; i++) {
+            service.removeStock("PN-" + (i % 10), 1);
+        }
+        repository.deleteByPartNumber("PN-9");
+        assertTrue(versions.getRetainedVersionCount() > 100);
+        assertNotNull(view.findPart("PN-9"));
+
+        view.close();
+
+        assertEquals(0, versions.getActiveViewCount());
+        assertEquals(9, versions.getRetainedVersionCount());
+        assertThrows(IllegalStateException.class, view::totalStockValue);
+
+        // Sin lectores abiertos, cada escritura conserva sólo la última versión
+        service.removeStock("PN-0", 1);
+        assertEquals(9, versions.getRetainedVersionCount());
+    }
+}
@@ -0,0 +1,176 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del repositorio JDBC de piezas contra una base H2 en memoria.
+ */
+public class JdbcPartRepositoryTest {
+
+    private JdbcSessionPool pool;
+    private JdbcPartRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        // Cada prueba usa su propia base en memoria
+        String url = "jdbc:h2:mem:parts-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        pool = new JdbcSessionPool(url, "sa", "", 4, 1_000);
+        repository = new JdbcPartRepository(pool, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("save y findByPartNumber conservan todos los campos")
+    void saveYBuscarConservaCampos() {
+        Part part = Part.createFromSupplier("PN-1", "Filtro de Aceite", 10, 15.5, "A-1", "SUP-1", 3, "Filtro");
+        part.addCompatibleVehicle("1G1RC71839Y100001");
+        repository.save(part);
+
+        Part found = repository.findByPartNumber("PN-1");
+
+        assertNotNull(found);
+        assertEquals("Filtro de Aceite", found.getName());
+        assertEquals(10, found.getQuantityInStock());
+        assertEquals(15.5, found.getUnitPrice(), 0.001);
+        assertEquals("SUP-1", found.getSupplierId());
+        assertNull(found.getSourceVehicleVin());
+        assertEquals(part.getCreatedAt(), found.getCreatedAt());
+        assertEquals(List.of("1G1RC71839Y100001"), found.getCompatibleVehicles());
+    }
+
+    @Test
+    @DisplayName("findByPartNumber devuelve null si la pieza no existe")
+    void buscarInexistenteDevuelveNull() {
+        assertNull(repository.findByPartNumber("NO-EXISTE"));
+    }
+
+    @Test
+    @DisplayName("Los compatibles se cargan de forma perezosa y se conservan al guardar sin leerlos")
+    void compatiblesPerezosos() {
+        Part part = Part.createFromDisassembly("PN-2", "Puerta", 1, 120.0, "D-3", "VIN-DESARME-1", 0, null);
+        part.addCompatibleVehicle("VIN-A");
+        part.addCompatibleVehicle("VIN-B");
+        repository.save(part);
+
+        Part found = repository.findByPartNumber("PN-2");
+        assertFalse(found.isCompatibleVehiclesLoaded());
+
+        // Guardar sin haber leído la lista no debe borrar la tabla secundaria
+        found.updateStock(2);
+        repository.save(found);
+
+        Part again = repository.findByPartNumber("PN-2");
+        assertEquals(3, again.getQuantityInStock());
+        assertTrue(again.isCompatibleVehicle("VIN-B"));
+        assertTrue(again.isCompatibleVehiclesLoaded());
+    }
+
+    @Test
+    @DisplayName("save actualiza (upsert) una pieza existente")
+    void saveHaceUpsert() {
+        Part part = Part.createFromSupplier("PN-3", "Pastilla", 5, 30.0, "B-2", "SUP-2", 1, null);
+        repository.save(part);
+        part.updateStock(-4);
+        part.setUnitPrice(32.0);
+        repository.save(part);
+
+        Part found = repository.findByPartNumber("PN-3");
+        assertEquals(1, found.getQuantityInStock());
+        assertEquals(32.0, found.getUnitPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("findAll lista todas las piezas y deleteByPartNumber borra también sus compatibles")
+    void findAllYDelete() {
+        Part part = Part.createFromSupplier("PN-4", "Bujía", 8, 5.0, "C-1", "SUP-3", 2, null);
+        part.addCompatibleVehicle("VIN-A");
+        repository.saveAll(List.of(part, Part.createFromSupplier("PN-5", "Correa", 3, 25.0, "C-2", "SUP-3", 1, null)));
+        assertEquals(2, repository.findAll().size());
+
+        repository.deleteByPartNumber("PN-4");
+
+        assertNull(repository.findByPartNumber("PN-4"));
+        assertEquals(1, repository.findAll().size());
+        repository.save(Part.createFromSupplier("PN-4", "Bujía", 8, 5.0, "C-1", "SUP-3", 2, null));
+        assertTrue(repository.findByPartNumber("PN-4").getCompatibleVehicles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Carga: guardar fila a fila y en lote producen el mismo resultado")
+    void compararGuardadoFilaAFilaYEnLote() {
+        int rows = 2_000;
+        List<Part> perRow = createParts("ROW-", rows);
+        List<Part> batched = createParts("BATCH-", rows);
+
+        for (Part part : perRow) {
+            repository.save(part);
+        }
+        repository.saveAll(batched);
+
+        for (int i = 0; i < rows; i += 97) {
+            assertEquals(perRow.get(i).getQuantityInStock(),
+                repository.findByPartNumber("ROW-" + i).getQuantityInStock());
+            assertEquals(batched.get(i).getCompatibleVehicles(),
+                repository.findByPartNumber("BATCH-" + i).getCompatibleVehicles());
+        }
+        assertEquals(pool.size(), pool.idleCount(), "Todas las conexiones deben volver al pool");
+    }
+
+    /**
+     * Benchmark de guardado fila a fila frente a saveAll: sólo se ejecuta si se indica el número de filas.
+     * Ejemplo: mvn test -Dtest=JdbcPartRepositoryTest -Djdbc.benchmark.rows=20000
+     * Los tiempos se publican en el informe de JUnit.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "jdbc.benchmark.rows", matches = "\\d+")
+    @DisplayName("Benchmark: guardado fila a fila frente a guardado en lote")
+    void benchmarkGuardadoFilaAFilaYEnLote(TestReporter reporter) {
+        int rows = Integer.getInteger("jdbc.benchmark.rows");
+        List<Part> perRow = createParts("ROW-", rows);
+        List<Part> batched = createParts("BATCH-", rows);
+
+        long start = System.nanoTime();
+        for (Part part : perRow) {
+            repository.save(part);
+        }
+        long perRowNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        repository.saveAll(batched);
+        long batchedNanos = System.nanoTime() - start;
+
+        reporter.publishEntry(Map.of(
+            "piezas", String.valueOf(rows),
+            "filaAFilaMs", String.valueOf(perRowNanos / 1_000_000),
+            "enLoteMs", String.valueOf(batchedNanos / 1_000_000)));
+
+        assertEquals(2 * rows, repository.findAll().size());
+    }
+
+    private static List<Part> createParts(String prefix, int count) {
+        List<Part> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Part part = Part.createFromSupplier(prefix + i, "Pieza " + i, i % 50, 10.0 + i, "A-" + (i % 10),
+                "SUP-" + (i % 7), 5, null);
+            part.addCompatibleVehicle("VIN-" + (i % 13));
+            parts.add(part);
+        }
+        return parts;
+    }
+}
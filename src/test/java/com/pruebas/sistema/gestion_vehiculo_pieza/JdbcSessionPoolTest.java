@@ -0,0 +1,47 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del pool de conexiones JDBC contra una base H2 en memoria.
+ */
+public class JdbcSessionPoolTest {
+
+    @Test
+    @DisplayName("Si la base cae y no se puede reconectar, el pool conserva el hueco y la excepción original")
+    void reconexionFallidaNoPierdeLaSesion() throws SQLException {
+        String name = "jdbc:h2:mem:pool-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        // Con IFEXISTS el pool no puede volver a crear la base una vez apagada
+        String url = name + ";IFEXISTS=TRUE";
+        try (Connection creator = DriverManager.getConnection(name, "sa", "");
+             JdbcSessionPool pool = new JdbcSessionPool(url, "sa", "", 1, 1_000)) {
+            creator.createStatement().execute("CREATE TABLE t (id INT)");
+
+            IllegalStateException failure = assertThrows(IllegalStateException.class, () -> pool.inTransaction(session -> {
+                session.getConnection().createStatement().execute("SHUTDOWN");
+                throw new IllegalStateException("fallo del trabajo");
+            }));
+            assertEquals("fallo del trabajo", failure.getMessage());
+            assertEquals(1, pool.idleCount());
+
+            // Mientras la base no exista, el préstamo falla pero la sesión sigue en el pool
+            assertThrows(IllegalStateException.class, () -> pool.inTransaction(session -> null));
+            assertEquals(1, pool.idleCount());
+
+            try (Connection recreated = DriverManager.getConnection(name, "sa", "")) {
+                recreated.createStatement().execute("CREATE TABLE t (id INT)");
+                int inserted = pool.inTransaction(session -> session.prepare("INSERT INTO t VALUES (1)").executeUpdate());
+                assertEquals(1, inserted);
+                assertEquals(1, pool.idleCount());
+            }
+        }
+    }
+}
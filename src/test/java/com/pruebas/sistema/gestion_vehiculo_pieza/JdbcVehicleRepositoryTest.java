@@ -0,0 +1,66 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del repositorio JDBC de vehículos contra una base H2 en memoria.
+ */
+public class JdbcVehicleRepositoryTest {
+
+    private JdbcSessionPool pool;
+    private JdbcVehicleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:mem:vehicles-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        pool = new JdbcSessionPool(url, "sa", "", 4, 1_000);
+        repository = new JdbcVehicleRepository(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("save y findByVin conservan estado, dueño y fotos")
+    void saveYBuscarConservaCampos() {
+        Vehicle vehicle = Vehicle.buyForSale("1G1RC71839Y100001", "Toyota", "Corolla", 2022, 15000, 1000, 17000, "4327GTF");
+        vehicle.addPhoto("/photos/a.jpg");
+        vehicle.addPhoto("/photos/b.jpg");
+        vehicle.updateStatus(Vehicle.VehicleStatus.RESERVED);
+        vehicle.setOwnerId("CUST-007");
+        repository.save(vehicle);
+
+        Vehicle found = repository.findByVin("1G1RC71839Y100001");
+
+        assertEquals(Vehicle.VehicleStatus.RESERVED, found.getStatus());
+        assertEquals("CUST-007", found.getOwnerId());
+        assertEquals(2000.0, found.calculateProfit(), 0.001);
+        assertFalse(found.isPhotosLoaded());
+        assertEquals(List.of("/photos/a.jpg", "/photos/b.jpg"), found.getPhotos());
+    }
+
+    @Test
+    @DisplayName("saveAll guarda en lote y permite actualizar después")
+    void saveAllEnLote() {
+        Vehicle a = Vehicle.buyForScrap("2G1RT51839Y100002", "Ford", "Fiesta", 1999, 500, 1000);
+        Vehicle b = Vehicle.buyForRepair("3G1RT51839Y100003", "Seat", "Ibiza", 2010, 2500, 120000);
+        repository.saveAll(List.of(a, b));
+
+        a.updateStatus(Vehicle.VehicleStatus.DISASSEMBLED);
+        repository.saveAll(List.of(a));
+
+        assertEquals(Vehicle.VehicleStatus.DISASSEMBLED, repository.findByVin("2G1RT51839Y100002").getStatus());
+        assertEquals("Ibiza", repository.findByVin("3G1RT51839Y100003").getModel());
+        assertNull(repository.findByVin("4G1RT51839Y100004"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadSimulatorTest {
+
+    private static InMemoryPartRepository seedParts(int count, int quantity) {
+        InMemoryPartRepository parts = new InMemoryPartRepository();
+        for (int i = 0; i < count; i++) {
+            parts.save(Part.createFromSupplier("PN-" + i, "Pieza " + i, quantity, 10.0, "A", "SUP-1", 5, null));
+        }
+        return parts;
+    }
+
+    private static InMemoryVehicleRepository seedVehicles(int count) {
+        InMemoryVehicleRepository vehicles = new InMemoryVehicleRepository();
+        for (int i = 0; i < count; i++) {
+            vehicles.save(Vehicle.buyForSale(String.format("1G1RC718%09d", i), "Toyota", "Corolla", 2020,
+                10000, 30000, 12000, "P-" + i));
+        }
+        return vehicles;
+    }
+
+    @Test
+    @DisplayName("Con muchos hilos no hay stock negativo, ni reservas dobles, y el stock cuadra con las retiradas")
+    void invariantesBajoCarga() {
+        // Pocas piezas y vehículos para forzar contención sobre las mismas claves
+        LoadSimulator simulator = new LoadSimulator(seedParts(20, 500), seedVehicles(200));
+
+        LoadSimulator.Report report = simulator.run(8, 20_000, new LoadSimulator.Mix(45, 10, 45, 3), 42L);
+
+        report.assertInvariants();
+        assertEquals(0, report.errors());
+        assertTrue(report.rejected() > 0, "Con este stock deben agotarse piezas y repetirse reservas");
+        assertEquals(160_000, report.latencies().values().stream().mapToLong(LoadSimulator.LatencyStats::count).sum());
+        LoadSimulator.LatencyStats removals = report.latencies().get(LoadSimulator.Operation.REMOVE_STOCK);
+        assertTrue(removals.p50() <= removals.p99() && removals.p99() <= removals.max());
+        assertTrue(report.throughput() > 0);
+    }
+
+    @Test
+    @DisplayName("El comprobador detecta un cambio de stock que no pasó por la simulación")
+    void detectaDescuadre() {
+        InMemoryPartRepository parts = seedParts(5, 100);
+        LoadSimulator simulator = new LoadSimulator(parts, seedVehicles(10));
+        simulator.run(2, 1_000, new LoadSimulator.Mix(1, 1, 1, 2), 7L).assertInvariants();
+
+        parts.findByPartNumber("PN-0").updateStock(5);
+
+        assertEquals(1, simulator.checkInvariants().size());
+        assertTrue(simulator.checkInvariants().get(0).contains("suma de stock"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartSearchIndexTest {
+
+    private PartSearchIndex index;
+    private Part filtroAceite;
+    private Part filtroAire;
+    private Part pastillaFreno;
+    private Part discoFreno;
+
+    @BeforeEach
+    void setUp() {
+        index = new PartSearchIndex();
+        filtroAceite = Part.createFromSupplier("PN-1", "Filtro de Aceite", 10, 15.5, "A-1", "SUP-1", 2, "Filtro para motor diésel");
+        filtroAire = Part.createFromSupplier("PN-2", "Filtro de aire", 0, 12.0, "A-2", "SUP-1", 2, "Compatible con aceite sintético");
+        pastillaFreno = Part.createFromSupplier("PN-3", "Pastilla de FRENO delantera", 4, 30.0, "B-1", "SUP-2", 1, null);
+        discoFreno = Part.createFromDisassembly("PN-4", "Disco de freno", 1, 45.0, "B-2", "VIN-DESARME-1", 0, "Pastilla no incluida");
+        index.index(filtroAceite);
+        index.index(filtroAire);
+        index.index(pastillaFreno);
+        index.index(discoFreno);
+    }
+
+    private static List<String> partNumbers(List<PartSearchIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.part().getPartNumber()).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Encuentra por fragmentos sin importar acentos ni mayúsculas")
+    void buscaSinAcentosNiMayusculas() {
+        assertEquals("PN-1", partNumbers(index.search("filtro aceite", 10, false)).get(0));
+        assertEquals(List.of("PN-1"), partNumbers(index.search("DIESEL", 10, false)));
+    }
+
+    @Test
+    @DisplayName("El nombre pesa más que la descripción")
+    void nombrePesaMasQueDescripcion() {
+        // PN-2 sólo tiene "aceite" en la descripción
+        assertEquals(List.of("PN-1", "PN-2"), partNumbers(index.search("filtro aceite", 10, false)));
+        assertEquals(List.of("PN-3", "PN-4"), partNumbers(index.search("pastilla freno", 10, false)));
+    }
+
+    @Test
+    @DisplayName("Admite prefijos y errores de tecleo")
+    void prefijosYErrores() {
+        assertEquals(List.of("PN-3"), partNumbers(index.search("pasti fre delan", 10, false)));
+        assertEquals(List.of("PN-1", "PN-2"), partNumbers(index.search("filtor", 10, false)));
+    }
+
+    @Test
+    @DisplayName("Puede filtrar sólo piezas con existencias")
+    void filtraPorStock() {
+        assertEquals(List.of("PN-1"), partNumbers(index.search("filtro", 10, true)));
+    }
+
+    @Test
+    @DisplayName("setName y setDescription actualizan el índice de forma incremental")
+    void actualizacionIncremental() {
+        filtroAire.setName("Filtro de habitáculo");
+        assertTrue(index.search("aire", 10, false).isEmpty());
+        assertEquals(List.of("PN-2"), partNumbers(index.search("habitaculo", 10, false)));
+
+        discoFreno.setDescription(null);
+        assertEquals(List.of("PN-3"), partNumbers(index.search("pastilla", 10, false)));
+    }
+
+    @Test
+    @DisplayName("remove quita la pieza y deja de escuchar sus cambios")
+    void removeQuitaPieza() {
+        index.remove("PN-1");
+        assertEquals(3, index.size());
+        filtroAceite.setName("Filtro de aceite nuevo");
+        assertTrue(index.search("nuevo", 10, false).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Con más de 64 términos para un prefijo se usan los que aparecen en más piezas")
+    void prefijoConMuchosTerminosPrioriza() {
+        for (int i = 0; i < 70; i++) {
+            index.index(Part.createFromSupplier("R-" + i, "Junta ref" + String.format("%03d", i), 1, 1.0, "C", "SUP", 0, null));
+        }
+        for (int i = 0; i < 5; i++) {
+            index.index(Part.createFromSupplier("Z-" + i, "Junta refzzz", 1, 1.0, "C", "SUP", 0, null));
+        }
+
+        List<String> found = partNumbers(index.search("junta ref", 100, false));
+
+        // refzzz (5 piezas) y otros 63 términos de una pieza cada uno
+        assertEquals(5 + 63, found.size());
+        assertTrue(found.containsAll(List.of("Z-0", "Z-1", "Z-2", "Z-3", "Z-4")));
+    }
+
+    @Test
+    @DisplayName("setName concurrentes sobre la misma pieza dejan indexado el último nombre")
+    void setNameConcurrenteIndexaUltimoNombre() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            Part part = Part.createFromSupplier("C-" + round, "inicial", 1, 1.0, "C", "SUP", 0, null);
+            index.index(part);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> writers = new ArrayList<>();
+            for (String name : List.of("alfa", "beta", "gamma", "delta")) {
+                Thread writer = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    part.setName(name);
+                });
+                writer.start();
+                writers.add(writer);
+            }
+            start.countDown();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+
+            for (String name : List.of("inicial", "alfa", "beta", "gamma", "delta")) {
+                boolean indexed = partNumbers(index.search(name, 500, false)).contains(part.getPartNumber());
+                assertEquals(name.equals(part.getName()), indexed, "Ronda " + round + ", término " + name);
+            }
+        }
+    }
+}
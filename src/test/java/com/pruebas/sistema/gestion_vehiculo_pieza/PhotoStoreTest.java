@@ -0,0 +1,190 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhotoStoreTest {
+
+    @TempDir
+    Path root;
+
+    private static byte[] png(int width, int height, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static Vehicle vehicle(String vin) {
+        return Vehicle.buyForSale(vin, "Toyota", "Corolla", 2022, 15000, 1000, 17000, "4327GTF");
+    }
+
+    @Test
+    @DisplayName("La misma foto se guarda una sola vez aunque la usen varios vehículos")
+    void deduplicaPorContenido() throws Exception {
+        PhotoStore store = new PhotoStore(root);
+        byte[] photo = png(64, 48, Color.RED);
+        Vehicle a = vehicle("1G1RC71839Y100001");
+        Vehicle b = vehicle("2G1RC71839Y100002");
+        // Los avisos llegan una vez por foto nueva y sin el monitor del vehículo tomado
+        AtomicInteger notices = new AtomicInteger();
+        AtomicBoolean lockHeld = new AtomicBoolean();
+        a.addChangeListener((vehicle, field, oldValue, newValue) -> {
+            notices.incrementAndGet();
+            lockHeld.compareAndSet(false, Thread.holdsLock(vehicle));
+        });
+
+        String urlA = store.addPhoto(a, new ByteArrayInputStream(photo));
+        String urlB = store.addPhoto(b, new ByteArrayInputStream(photo));
+        store.addPhoto(a, new ByteArrayInputStream(photo));
+
+        assertEquals(urlA, urlB);
+        assertTrue(urlA.startsWith(PhotoStore.URL_PREFIX));
+        assertEquals(1, a.getPhotos().size());
+        assertEquals(1, notices.get());
+        assertFalse(lockHeld.get());
+        assertEquals(1, store.getStoredCount());
+        assertEquals(2, store.getDeduplicatedCount());
+        assertTrue(store.contains(urlA));
+        // Se espera a la miniatura en segundo plano antes de borrar la carpeta temporal
+        assertNotNull(store.thumbnail(urlA).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Los originales se sirven con transferTo y con proyección en memoria sin alterarse")
+    void sirveOriginalesSinCopia() throws Exception {
+        PhotoStore store = new PhotoStore(root);
+        byte[] photo = png(300, 200, Color.BLUE);
+        String hash = store.store(new ByteArrayInputStream(photo));
+
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        assertEquals(photo.length, store.transferTo(hash, Channels.newChannel(sent)));
+        assertArrayEquals(photo, sent.toByteArray());
+
+        MappedByteBuffer mapped = store.map(PhotoStore.URL_PREFIX + hash);
+        byte[] read = new byte[mapped.remaining()];
+        mapped.get(read);
+        assertArrayEquals(photo, read);
+
+        assertThrows(IllegalArgumentException.class, () -> store.map("0".repeat(64)));
+        assertThrows(IllegalArgumentException.class, () -> store.map("../../etc/passwd"));
+        assertNotNull(store.thumbnail(hash).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("transferTo no se queda en bucle si el original se recorta durante el envío")
+    void transferToSinAvanceNoSeBloquea() throws Exception {
+        PhotoStore store = new PhotoStore(root);
+        byte[] photo = new byte[100_000];
+        new Random(3).nextBytes(photo);
+        String hash = store.store(new ByteArrayInputStream(photo));
+        Path blob = root.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash);
+
+        // El primer envío recorta el fichero: a partir de ahí transferTo ya no avanza
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        WritableByteChannel sink = Channels.newChannel(sent);
+        WritableByteChannel truncating = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer source) throws IOException {
+                try (FileChannel channel = FileChannel.open(blob, StandardOpenOption.WRITE)) {
+                    channel.truncate(1_000);
+                }
+                return sink.write(source);
+            }
+
+            @Override
+            public boolean isOpen() { return true; }
+
+            @Override
+            public void close() { }
+        };
+
+        long bytes = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> store.transferTo(hash, truncating));
+        assertEquals(sent.size(), bytes);
+        assertTrue(bytes < photo.length);
+    }
+
+    @Test
+    @DisplayName("La miniatura se genera una vez y el listado ya no necesita el original")
+    void miniaturasSinReleerOriginal() throws Exception {
+        PhotoStore store = new PhotoStore(root);
+        Vehicle vehicle = vehicle("1G1RC71839Y100001");
+        String url = store.addPhoto(vehicle, new ByteArrayInputStream(png(800, 600, Color.GREEN)));
+        vehicle.addPhoto("https://externo/foto.jpg");
+
+        byte[] thumbnail = store.thumbnail(url).get(10, TimeUnit.SECONDS);
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(thumbnail));
+        assertEquals(240, decoded.getWidth());
+        assertEquals(180, decoded.getHeight());
+        assertSame(thumbnail, store.thumbnail(url).get());
+        assertTrue(store.getCacheHits() >= 1);
+
+        // Sin el original, un almacén nuevo sigue sirviendo el listado desde la miniatura en disco
+        String hash = url.substring(PhotoStore.URL_PREFIX.length());
+        Files.delete(root.resolve("blobs").resolve(hash.substring(0, 2)).resolve(hash));
+        PhotoStore reopened = new PhotoStore(root);
+        var listing = reopened.listingThumbnails(vehicle);
+        assertEquals(1, listing.size());
+        assertArrayEquals(thumbnail, listing.get(0).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Un fichero que no es imagen no produce miniatura")
+    void contenidoNoImagen() {
+        PhotoStore store = new PhotoStore(root);
+        String hash = store.store(new ByteArrayInputStream("no soy una imagen".getBytes()));
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+            () -> store.thumbnail(hash).get(10, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("La caché de miniaturas respeta el máximo de bytes descartando la menos usada")
+    void cacheLruPorBytes() {
+        ThumbnailCache cache = new ThumbnailCache(100);
+        cache.put("a", new byte[40]);
+        cache.put("b", new byte[40]);
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", new byte[40]);
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertEquals(80, cache.getUsedBytes());
+        assertEquals(1, cache.getEvictions());
+
+        cache.put("enorme", new byte[101]);
+        assertFalse(cache.contains("enorme"));
+    }
+}
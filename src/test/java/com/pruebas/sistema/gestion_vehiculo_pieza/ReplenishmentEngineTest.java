@@ -0,0 +1,164 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplenishmentEngineTest {
+
+    private ReplenishmentEngine engine;
+    private Part filtro;
+    private Part pastilla;
+    private Part bujia;
+    private Part puertaDesarme;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(Instant.parse("2026-10-19T10:00:00Z"), ZoneOffset.UTC);
+        // Ventana de 7 días y pedidos que cubren 14 días de consumo
+        engine = new ReplenishmentEngine(clock, 7, 14, 2, ForkJoinPool.commonPool());
+
+        filtro = Part.createFromSupplier("PN-1", "Filtro", 10, 15.0, "A-1", "SUP-A", 5, null);
+        pastilla = Part.createFromSupplier("PN-2", "Pastilla", 2, 30.0, "B-1", "SUP-B", 4, null);
+        bujia = Part.createFromSupplier("PN-3", "Bujía", 1, 5.0, "C-1", "SUP-A", 3, null);
+        puertaDesarme = Part.createFromDisassembly("PN-4", "Puerta", 0, 120.0, "D-1", "VIN-DESARME-1", 1, null);
+        engine.trackAll(List.of(filtro, pastilla, bujia, puertaDesarme));
+    }
+
+    @Test
+    @DisplayName("Agrupa por proveedor y excluye las piezas de desarme")
+    void agrupaPorProveedor() {
+        List<ReplenishmentEngine.PurchaseBatch> batches = engine.run();
+
+        assertEquals(2, batches.size());
+        assertEquals("SUP-A", batches.get(0).supplierId());
+        // Sin consumo: se repone hasta el doble del umbral (3 + 3 - 1 = 5)
+        assertEquals(List.of(new ReplenishmentEngine.ReorderLine("PN-3", "SUP-A", 5, 5.0)), batches.get(0).lines());
+        assertEquals("SUP-B", batches.get(1).supplierId());
+        assertEquals(6, batches.get(1).totalUnits());
+        assertEquals(180.0, batches.get(1).total(), 0.001);
+        assertEquals(4, engine.getLastEvaluatedCount());
+    }
+
+    @Test
+    @DisplayName("La cantidad tiene en cuenta el consumo reciente")
+    void cantidadSegunConsumo() {
+        engine.run();
+        filtro.updateStock(-7); // 3 en stock, 7 consumidas en la ventana de 7 días => 1 diaria
+
+        List<ReplenishmentEngine.PurchaseBatch> batches = engine.run();
+
+        // Objetivo = umbral 5 + max(5, 14 días * 1) = 19 => pedir 16
+        ReplenishmentEngine.ReorderLine line = batches.get(0).lines().stream()
+            .filter(l -> l.partNumber().equals("PN-1")).findFirst().orElseThrow();
+        assertEquals(16, line.quantity());
+    }
+
+    @Test
+    @DisplayName("Las ejecuciones siguientes sólo reevalúan las piezas modificadas")
+    void ejecucionIncremental() {
+        engine.run();
+        assertEquals(0, engine.getPendingCount());
+
+        pastilla.updateStock(10); // Repuesta: deja de necesitar pedido
+        List<ReplenishmentEngine.PurchaseBatch> batches = engine.run();
+
+        assertEquals(1, engine.getLastEvaluatedCount());
+        assertEquals(1, batches.size());
+        assertEquals("SUP-A", batches.get(0).supplierId());
+
+        engine.run();
+        assertEquals(0, engine.getLastEvaluatedCount());
+    }
+
+    @Test
+    @DisplayName("Al cambiar de día se reevalúan las piezas cuyo consumo sale de la ventana")
+    void reevaluaAlCambiarDeDia() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-10-19T10:00:00Z"));
+        ReplenishmentEngine daily = new ReplenishmentEngine(clock, 7, 14, 2, ForkJoinPool.commonPool());
+        Part part = Part.createFromSupplier("PN-10", "Filtro", 10, 15.0, "A-1", "SUP-A", 5, null);
+        daily.track(part);
+        daily.run();
+        part.updateStock(-7);
+        assertEquals(16, daily.run().get(0).lines().get(0).quantity());
+
+        // Mismo día: nada que reevaluar
+        assertEquals(16, daily.run().get(0).lines().get(0).quantity());
+        assertEquals(0, daily.getLastEvaluatedCount());
+
+        // Una semana después el consumo ya no cuenta: objetivo = 5 + 5 = 10 => pedir 7
+        clock.advance(Duration.ofDays(7));
+        assertEquals(7, daily.run().get(0).lines().get(0).quantity());
+        assertEquals(1, daily.getLastEvaluatedCount());
+    }
+
+    @Test
+    @DisplayName("Una pieza que deja de observarse durante la ejecución no recupera su propuesta")
+    void untrackDuranteEjecucion() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // Las particiones no empiezan hasta que el test lo permite
+        Executor gated = task -> new Thread(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            task.run();
+        }).start();
+        Clock clock = Clock.fixed(Instant.parse("2026-10-19T10:00:00Z"), ZoneOffset.UTC);
+        ReplenishmentEngine gatedEngine = new ReplenishmentEngine(clock, 7, 14, 1, gated);
+        gatedEngine.track(bujia);
+
+        CompletableFuture<List<ReplenishmentEngine.PurchaseBatch>> running = CompletableFuture.supplyAsync(gatedEngine::run);
+        while (gatedEngine.getPendingCount() > 0) {
+            Thread.sleep(1);
+        }
+        gatedEngine.untrack("PN-3");
+        release.countDown();
+
+        assertTrue(running.get(5, TimeUnit.SECONDS).isEmpty());
+        assertTrue(gatedEngine.run().isEmpty());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedPartRepositoryTest {
+
+    private static List<Part> createParts(int count) {
+        List<Part> parts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            parts.add(Part.createFromSupplier("PN-" + i, "Pieza " + i, i, 1.0, "A", "SUP-1", 0, null));
+        }
+        return parts;
+    }
+
+    private static int totalStored(ShardedPartRepository repository) {
+        return repository.shards().values().stream().mapToInt(shard -> shard.findAll().size()).sum();
+    }
+
+    @Test
+    @DisplayName("Cada pieza vive sólo en el shard que le asigna el anillo")
+    void enrutaPorHashConsistente() {
+        ShardedPartRepository repository = ShardedPartRepository.localCluster(4);
+        repository.saveAll(createParts(1_000));
+
+        assertEquals(1_000, totalStored(repository));
+        for (Map.Entry<String, PartRepository> shard : repository.shards().entrySet()) {
+            assertFalse(shard.getValue().findAll().isEmpty(), "Todos los shards deben recibir piezas");
+            for (Part part : shard.getValue().findAll()) {
+                assertEquals(shard.getKey(), repository.shardNameFor(part.getPartNumber()));
+            }
+        }
+        assertEquals(42, repository.findByPartNumber("PN-42").getQuantityInStock());
+    }
+
+    @Test
+    @DisplayName("Añadir un shard sólo mueve una parte de las claves y no pierde ninguna")
+    void rebalanceoAlAnadirYQuitar() {
+        ShardedPartRepository repository = ShardedPartRepository.localCluster(3);
+        repository.saveAll(createParts(3_000));
+
+        int moved = repository.addShard("shard-3", new InMemoryPartRepository());
+
+        assertTrue(moved > 0 && moved < 1_500, "Deben moverse aproximadamente 1/4 de las claves: " + moved);
+        assertEquals(moved, repository.shards().get("shard-3").findAll().size());
+        assertEquals(3_000, totalStored(repository));
+
+        repository.removeShard("shard-0");
+        assertEquals(3_000, totalStored(repository));
+        assertNotNull(repository.findByPartNumber("PN-2999"));
+    }
+
+    @Test
+    @DisplayName("Las escrituras concurrentes con un rebalanceo acaban sólo en su shard dueño")
+    void escriturasDuranteRebalanceo() throws Exception {
+        ShardedPartRepository repository = ShardedPartRepository.localCluster(3);
+        List<Part> parts = createParts(4_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = seed; i < parts.size(); i += 4) {
+                        repository.save(parts.get(i));
+                    }
+                }));
+            }
+            repository.addShard("shard-3", new InMemoryPartRepository());
+            repository.removeShard("shard-0");
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(4_000, totalStored(repository));
+        for (Map.Entry<String, PartRepository> shard : repository.shards().entrySet()) {
+            for (Part part : shard.getValue().findAll()) {
+                assertEquals(shard.getKey(), repository.shardNameFor(part.getPartNumber()));
+            }
+        }
+        assertEquals(4_000, repository.findAllByPartNumber(
+            parts.stream().map(Part::getPartNumber).toList()).size());
+    }
+
+    @Test
+    @DisplayName("findAllByPartNumber reparte la consulta entre shards, incluidos los remotos simulados")
+    void scatterGatherConShardRemoto() {
+        ShardedPartRepository repository = ShardedPartRepository.localCluster(2);
+        RemoteShardStub<PartRepository> remote = RemoteShardStub.wrap(
+            PartRepository.class, new InMemoryPartRepository(), 200, TimeUnit.MICROSECONDS);
+        repository.addShard("remoto", remote.proxy());
+        repository.saveAll(createParts(300));
+
+        Map<String, Part> found = repository.findAllByPartNumber(List.of("PN-1", "PN-150", "PN-299", "NO-EXISTE"));
+
+        assertEquals(3, found.size());
+        assertEquals(150, found.get("PN-150").getQuantityInStock());
+        assertTrue(remote.getCallCount() > 0);
+    }
+
+    @Test
+    @DisplayName("Un shard remoto caído propaga su error original")
+    void shardRemotoCaido() {
+        RemoteShardStub<PartRepository> remote = RemoteShardStub.wrap(
+            PartRepository.class, new InMemoryPartRepository(), 0, TimeUnit.MICROSECONDS);
+        ShardedPartRepository repository = new ShardedPartRepository();
+        repository.addShard("remoto", remote.proxy());
+        remote.setAvailable(false);
+
+        assertThrows(IllegalStateException.class, () -> repository.findAll());
+    }
+}
@@ -0,0 +1,33 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedVehicleRepositoryTest {
+
+    @Test
+    @DisplayName("Los vehículos se reparten por VIN y se siguen encontrando tras rebalancear")
+    void repartePorVin() {
+        ShardedVehicleRepository repository = ShardedVehicleRepository.localCluster(3);
+        Vehicle a = Vehicle.buyForSale("1G1RC71839Y100001", "Toyota", "Corolla", 2022, 15000, 1000, 17000, "4327GTF");
+        Vehicle b = Vehicle.buyForScrap("2G1RT51839Y100002", "Ford", "Fiesta", 1999, 500, 1000);
+        Vehicle c = Vehicle.buyForRepair("3G1RT51839Y100003", "Seat", "Ibiza", 2010, 2500, 120000);
+        repository.saveAll(List.of(a, b, c));
+
+        repository.addShard("shard-3", new InMemoryVehicleRepository());
+        repository.removeShard("shard-1");
+
+        Map<String, Vehicle> found = repository.findAllByVin(List.of(a.getVin(), b.getVin(), c.getVin()));
+        assertEquals(3, found.size());
+        assertSame(c, repository.findByVin(c.getVin()));
+        assertEquals(3, repository.findAll().size());
+
+        repository.deleteByVin(b.getVin());
+        assertNull(repository.findByVin(b.getVin()));
+    }
+}
@@ -0,0 +1,168 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SingleFlightTest {
+
+    @Test
+    @DisplayName("Las llamadas concurrentes con la misma clave comparten una sola ejecución")
+    void agrupaLlamadasConcurrentes() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(5_000);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> flight.execute("VIN-1", () -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(release);
+                    return "valor";
+                })));
+            }
+            // Se espera a que todos estén dentro antes de liberar al que ejecuta
+            while (flight.getStats().calls() < threads) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("valor", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        SingleFlight.Stats stats = flight.getStats();
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.executions());
+        assertEquals(threads - 1, stats.coalesced());
+        assertEquals(0, flight.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("La espera está acotada y el error de la carga llega a todos los agrupados")
+    void esperaAcotadaYErrores() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(20);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("PN-1", () -> {
+                awaitQuietly(release);
+                throw new IllegalArgumentException("fallo de origen");
+            }));
+            while (flight.getInFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+
+            assertThrows(IllegalStateException.class, () -> flight.execute("PN-1", () -> "no se ejecuta"));
+            assertEquals(1, flight.getStats().timeouts());
+
+            release.countDown();
+            Exception e = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Terminada la llamada, la siguiente vuelve al origen
+        assertEquals("nuevo", flight.execute("PN-1", () -> "nuevo"));
+        assertEquals(2, flight.getStats().executions());
+    }
+
+    @Test
+    @DisplayName("El repositorio agrupado reduce las llamadas al repositorio real lento")
+    void repositorioAgrupado() throws Exception {
+        InMemoryVehicleRepository store = new InMemoryVehicleRepository();
+        store.save(Vehicle.buyForSale("1G1RC71839Y100001", "Toyota", "Corolla", 2022, 15000, 1000, 17000, "4327GTF"));
+        RemoteShardStub<VehicleRepository> slow = RemoteShardStub.wrap(
+            VehicleRepository.class, store, 50, TimeUnit.MILLISECONDS);
+        CoalescingVehicleRepository repository = new CoalescingVehicleRepository(slow.proxy(), 1_000);
+
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Vehicle>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return repository.findByVin("1G1RC71839Y100001");
+                }));
+            }
+            start.countDown();
+            for (Future<Vehicle> result : results) {
+                assertEquals("Corolla", result.get(5, TimeUnit.SECONDS).getModel());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads, repository.getStats().calls());
+        assertTrue(slow.getCallCount() < threads,
+            "Las búsquedas simultáneas deben agruparse: " + slow.getCallCount());
+        assertEquals(slow.getCallCount(), repository.getStats().executions());
+    }
+
+    @Test
+    @DisplayName("Una lectura posterior a una escritura no se une a la búsqueda anterior en curso")
+    void leeLoQueEscribe() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // La primera búsqueda lee el valor y se queda parada antes de devolverlo, como una respuesta lenta
+        InMemoryPartRepository store = new InMemoryPartRepository() {
+            private final AtomicInteger finds = new AtomicInteger();
+
+            @Override
+            public Part findByPartNumber(String partNumber) {
+                Part found = super.findByPartNumber(partNumber);
+                if (finds.getAndIncrement() == 0) {
+                    loaded.countDown();
+                    awaitQuietly(release);
+                }
+                return found;
+            }
+        };
+        store.save(Part.createFromSupplier("PN-1", "Filtro", 10, 5.0, "A", "SUP-1", 0, null));
+        CoalescingPartRepository repository = new CoalescingPartRepository(store, 5_000);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Part> stale = executor.submit(() -> repository.findByPartNumber("PN-1"));
+            assertTrue(loaded.await(5, TimeUnit.SECONDS));
+
+            repository.deleteByPartNumber("PN-1");
+            assertNull(repository.findByPartNumber("PN-1"));
+
+            Part replacement = Part.createFromSupplier("PN-1", "Filtro nuevo", 3, 6.0, "B", "SUP-1", 0, null);
+            repository.save(replacement);
+            assertSame(replacement, repository.findByPartNumber("PN-1"));
+
+            release.countDown();
+            assertEquals("Filtro", stale.get(5, TimeUnit.SECONDS).getName());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, repository.getStats().coalesced());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.pruebas.sistema.gestion_vehiculo_pieza;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TieredVehicleRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private static String vin(int i) {
+        return String.format("1G1RC718%09d", i);
+    }
+
+    // Los pares acaban vendidos, los múltiplos de 3 impares desguazados y el resto siguen disponibles
+    private static Vehicle createVehicle(int i) {
+        if (i % 2 == 0) {
+            Vehicle vehicle = Vehicle.buyForSale(vin(i), "Toyota", "Corolla", 2015 + i % 8, 10000 + i, 50000, 12000 + i, "P-" + i);
+            vehicle.addPhoto("https://fotos/" + i + ".jpg");
+            vehicle.updateStatus(Vehicle.VehicleStatus.RESERVED);
+            vehicle.setOwnerId("CLIENTE-" + i);
+            vehicle.updateStatus(Vehicle.VehicleStatus.SOLD);
+            return vehicle;
+        }
+        if (i % 3 == 0) {
+            Vehicle vehicle = Vehicle.buyForScrap(vin(i), "Ford", "Fiesta", 2001, 400, 250000);
+            vehicle.updateStatus(Vehicle.VehicleStatus.DISASSEMBLED);
+            return vehicle;
+        }
+        return Vehicle.buyForSale(vin(i), "Seat", "Ibiza", 2019, 8000, 30000, 9500, "P-" + i);
+    }
+
+    @Test
+    @DisplayName("Los vehículos en estado final pasan al nivel frío y se recuperan por VIN con todos sus datos")
+    void vuelcaYRecuperaDelNivelFrio() {
+        TieredVehicleRepository repository = new TieredVehicleRepository(directory, 1_000_000);
+        for (int i = 0; i < 600; i++) {
+            repository.save(createVehicle(i));
+        }
+        Vehicle original = repository.findByVin(vin(42));
+
+        assertEquals(400, repository.spill());
+
+        TieredVehicleRepository.TierStats stats = repository.getTierStats();
+        assertEquals(200, stats.hotVehicles());
+        assertEquals(400, stats.coldVehicles());
+        assertTrue(stats.coldMappedBytes() > 0);
+        assertTrue(stats.hotToColdRatio() > 0 && stats.hotToColdRatio() < Double.POSITIVE_INFINITY);
+
+        Vehicle cold = repository.findByVin(vin(42));
+        assertNotSame(original, cold);
+        assertEquals(Vehicle.VehicleStatus.SOLD, cold.getStatus());
+        assertEquals("CLIENTE-42", cold.getOwnerId());
+        assertEquals(original.getSalePrice(), cold.getSalePrice(), 0.001);
+        assertEquals(original.getPhotos(), cold.getPhotos());
+        assertEquals(original.getCreatedAt(), cold.getCreatedAt());
+        assertEquals(Vehicle.VehicleStatus.DISASSEMBLED, repository.findByVin(vin(3)).getStatus());
+        assertEquals(Vehicle.VehicleStatus.AVAILABLE, repository.findByVin(vin(1)).getStatus());
+        assertNull(repository.findByVin(vin(9_999)));
+        assertEquals(600, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("El volcado se dispara solo al acumular un segmento de vehículos terminados")
+    void volcadoAutomatico() {
+        TieredVehicleRepository repository = new TieredVehicleRepository(directory, 50);
+        for (int i = 0; i < 300; i++) {
+            repository.save(createVehicle(i));
+        }
+
+        TieredVehicleRepository.TierStats stats = repository.getTierStats();
+        assertTrue(stats.segments() >= 3, "Deben haberse creado varios segmentos: " + stats.segments());
+        assertTrue(stats.hotVehicles() < 300);
+        for (int i = 0; i < 300; i += 7) {
+            assertEquals(vin(i), repository.findByVin(vin(i)).getVin());
+        }
+    }
+
+    @Test
+    @DisplayName("Un guardado nuevo oculta la copia fría y un borrado la hace invisible")
+    void sombreadoYBorrado() {
+        TieredVehicleRepository repository = new TieredVehicleRepository(directory, 1_000_000);
+        repository.save(createVehicle(0));
+        repository.save(createVehicle(2));
+        repository.spill();
+
+        Vehicle cold = repository.findByVin(vin(0));
+        cold.setSalePrice(99_000);
+        repository.save(cold);
+        assertEquals(99_000, repository.findByVin(vin(0)).getSalePrice(), 0.001);
+
+        repository.spill();
+        assertEquals(99_000, repository.findByVin(vin(0)).getSalePrice(), 0.001);
+        assertEquals(2, repository.findAll().size());
+
+        repository.deleteByVin(vin(2));
+        assertNull(repository.findByVin(vin(2)));
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Un repositorio nuevo sobre la misma carpeta reabre los segmentos y sigue numerándolos")
+    void reabreSegmentosExistentes() {
+        TieredVehicleRepository first = new TieredVehicleRepository(directory, 1_000_000);
+        for (int i = 0; i < 100; i++) {
+            first.save(createVehicle(i));
+        }
+        first.spill();
+        first.save(createVehicle(100));
+        first.save(createVehicle(102));
+        first.spill();
+        // Un borrado frío y otro que se vuelve a guardar y volcar después
+        first.deleteByVin(vin(42));
+        first.deleteByVin(vin(44));
+        first.save(createVehicle(44));
+        first.spill();
+
+        TieredVehicleRepository reopened = new TieredVehicleRepository(directory, 1_000_000);
+        assertEquals(3, reopened.getTierStats().segments());
+        assertNull(reopened.findByVin(vin(42)), "El borrado frío debe sobrevivir al reinicio");
+        assertEquals("CLIENTE-44", reopened.findByVin(vin(44)).getOwnerId());
+        assertEquals("CLIENTE-40", reopened.findByVin(vin(40)).getOwnerId());
+        assertEquals(Vehicle.VehicleStatus.SOLD, reopened.findByVin(vin(102)).getStatus());
+        assertNull(reopened.findByVin(vin(1)));
+        assertEquals(68, reopened.findAll().size());
+
+        // El siguiente volcado no choca con los ficheros existentes
+        reopened.save(createVehicle(104));
+        assertEquals(1, reopened.spill());
+        assertEquals(4, reopened.getTierStats().segments());
+        assertEquals(Vehicle.VehicleStatus.SOLD, reopened.findByVin(vin(104)).getStatus());
+        assertEquals(69, reopened.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Un borrado concurrente con un volcado no deja reaparecer al vehículo")
+    void borradoDuranteVolcado() throws Exception {
+        TieredVehicleRepository repository = new TieredVehicleRepository(directory, 1_000_000);
+        for (int round = 0; round < 20; round++) {
+            int base = round * 200;
+            for (int i = base; i < base + 200; i += 2) {
+                repository.save(createVehicle(i));
+            }
+            CompletableFuture<Integer> spill = CompletableFuture.supplyAsync(repository::spill);
+            for (int i = base; i < base + 200; i += 2) {
+                repository.deleteByVin(vin(i));
+            }
+            spill.get(10, TimeUnit.SECONDS);
+            for (int i = base; i < base + 200; i += 2) {
+                assertNull(repository.findByVin(vin(i)), "Reapareció " + vin(i));
+            }
+        }
+        assertEquals(0, repository.findAll().size());
+    }
+}